@@ -0,0 +1,57 @@
+package com.example.lms.bench;
+
+import com.example.lms.entity.Course;
+import com.example.lms.entity.Enrollment;
+import com.example.lms.entity.User;
+import com.example.lms.entity.enums.UserRole;
+import com.example.lms.entity.enums.UserStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Детерминированные наборы сущностей для бенчмарков.
+ */
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setStatus(UserStatus.ACTIVE);
+            user.setRole(i % 50 == 0 ? UserRole.TEACHER : UserRole.STUDENT);
+            users.add(user);
+        }
+        return users;
+    }
+
+    static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Course course = new Course();
+            course.setId((long) i);
+            course.setTitle("Course " + i);
+            course.setDescription("Description of course " + i);
+            course.setCapacity(i % 2 == 0 ? 100 : null);
+            courses.add(course);
+        }
+        return courses;
+    }
+
+    static List<Enrollment> enrollments(List<User> users, List<Course> courses) {
+        List<Enrollment> enrollments = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            Enrollment enrollment = new Enrollment(users.get(i), courses.get(i % courses.size()));
+            enrollment.setId(i + 1L);
+            enrollments.add(enrollment);
+        }
+        return enrollments;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.lms.bench;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Точка входа профиля {@code jmh}: запускает бенчмарки и проверяет, что горячие пути не деградировали.
+ * <p>
+ * Абсолютные значения зависят от машины, поэтому проверки сравнивают бенчмарки одного прогона между собой:
+ * маппинг пользователей должен оставаться как минимум в {@value #MIN_SPEEDUP_OVER_REFLECTION} раза быстрее
+ * варианта с рефлексией. Аргументы командной строки — обычные аргументы JMH (фильтр бенчмарков, {@code -f}, {@code -i}, ...).
+ */
+public final class BenchmarkRunner {
+
+    private static final double MIN_SPEEDUP_OVER_REFLECTION = 2.0;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResult().hasValue()) {
+            options.result("target/jmh-result.json").resultFormat(ResultFormatType.JSON);
+        }
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        Optional<Double> direct = score(results, "DtoMappingBenchmark.userPage");
+        Optional<Double> reflective = score(results, "DtoMappingBenchmark.userPageReflective");
+        if (direct.isPresent() && reflective.isPresent()) {
+            double speedup = reflective.get() / direct.get();
+            System.out.printf("UserResponse.from speedup over reflective mapping: %.1fx%n", speedup);
+            if (speedup < MIN_SPEEDUP_OVER_REFLECTION) {
+                System.err.printf("Regression: UserResponse.from is only %.1fx faster than reflective mapping "
+                        + "(expected at least %.1fx)%n", speedup, MIN_SPEEDUP_OVER_REFLECTION);
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Optional<Double> score(Collection<RunResult> results, String benchmarkSuffix) {
+        return results.stream()
+                .filter(r -> r.getParams().getBenchmark().endsWith(benchmarkSuffix))
+                .map(r -> r.getPrimaryResult().getScore())
+                .findFirst();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.lms.bench;
+
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CursorPageResponse;
+import com.example.lms.dto.EnrollmentResponse;
+import com.example.lms.dto.UserResponse;
+import com.example.lms.entity.Course;
+import com.example.lms.entity.Enrollment;
+import com.example.lms.entity.User;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кодирование и декодирование страниц DTO в JSON, CBOR и Smile — форматах, которые API отдаёт по {@code Accept}.
+ * <p>
+ * Декодирование измеряется на стороне потребителя: байты ответа в {@link CursorPageResponse} с типизированными
+ * элементами. Размеры закодированных страниц печатаются при подготовке бенчмарка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"500"})
+    int size;
+
+    CursorPageResponse<UserResponse> users;
+    CursorPageResponse<CourseResponse> courses;
+    CursorPageResponse<EnrollmentResponse> enrollments;
+
+    ObjectWriter writer;
+    ObjectReader usersReader;
+    ObjectReader coursesReader;
+    ObjectReader enrollmentsReader;
+    OutputStream sink;
+
+    byte[] usersBytes;
+    byte[] coursesBytes;
+    byte[] enrollmentsBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<User> userRows = BenchmarkData.users(size);
+        List<Course> courseRows = BenchmarkData.courses(size);
+        List<Enrollment> enrollmentRows = BenchmarkData.enrollments(userRows, courseRows);
+        users = CursorPageResponse.of(userRows, size, User::getId, UserResponse::from);
+        courses = CursorPageResponse.of(courseRows, size, Course::getId, CourseResponse::from);
+        enrollments = CursorPageResponse.of(enrollmentRows, size, Enrollment::getId, EnrollmentResponse::from);
+
+        // Так же, как конвертеры приложения: настройки Spring Boot поверх фабрики нужного формата
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().factory(factory(format)).build();
+        writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        usersReader = mapper.readerFor(new TypeReference<CursorPageResponse<UserResponse>>() { });
+        coursesReader = mapper.readerFor(new TypeReference<CursorPageResponse<CourseResponse>>() { });
+        enrollmentsReader = mapper.readerFor(new TypeReference<CursorPageResponse<EnrollmentResponse>>() { });
+        sink = OutputStream.nullOutputStream();
+
+        usersBytes = writer.writeValueAsBytes(users);
+        coursesBytes = writer.writeValueAsBytes(courses);
+        enrollmentsBytes = writer.writeValueAsBytes(enrollments);
+        System.out.printf("%n%s, %d items per page: users %d B, courses %d B, enrollments %d B%n",
+                format, size, usersBytes.length, coursesBytes.length, enrollmentsBytes.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+    }
+
+    @Benchmark
+    public void encodeUsers() throws IOException {
+        writer.writeValue(sink, users);
+    }
+
+    @Benchmark
+    public void encodeCourses() throws IOException {
+        writer.writeValue(sink, courses);
+    }
+
+    @Benchmark
+    public void encodeEnrollments() throws IOException {
+        writer.writeValue(sink, enrollments);
+    }
+
+    @Benchmark
+    public Object decodeUsers() throws IOException {
+        return usersReader.readValue(usersBytes);
+    }
+
+    @Benchmark
+    public Object decodeCourses() throws IOException {
+        return coursesReader.readValue(coursesBytes);
+    }
+
+    @Benchmark
+    public Object decodeEnrollments() throws IOException {
+        return enrollmentsReader.readValue(enrollmentsBytes);
+    }
+}
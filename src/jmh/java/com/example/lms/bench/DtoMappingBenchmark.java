@@ -0,0 +1,87 @@
+package com.example.lms.bench;
+
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CursorPageResponse;
+import com.example.lms.dto.EnrollmentResponse;
+import com.example.lms.dto.UserResponse;
+import com.example.lms.entity.Course;
+import com.example.lms.entity.Enrollment;
+import com.example.lms.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Маппинг страницы сущностей в DTO — то, что делают списочные эндпойнты на каждом запросе.
+ * <p>
+ * {@link #userPageReflective()} воспроизводит прежний {@code UserResponse.safeRole}
+ * (роль через {@code getClass().getMethod("getRole").invoke(user)}) и служит точкой отсчёта
+ * для проверки в {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"500"})
+    int size;
+
+    List<User> users;
+    List<Course> courses;
+    List<Enrollment> enrollments;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkData.users(size);
+        courses = BenchmarkData.courses(size);
+        enrollments = BenchmarkData.enrollments(users, courses);
+    }
+
+    @Benchmark
+    public CursorPageResponse<UserResponse> userPage() {
+        return CursorPageResponse.of(users, size, User::getId, UserResponse::from);
+    }
+
+    @Benchmark
+    public CursorPageResponse<UserResponse> userPageReflective() {
+        return CursorPageResponse.of(users, size, User::getId, DtoMappingBenchmark::reflectiveUserResponse);
+    }
+
+    @Benchmark
+    public CursorPageResponse<CourseResponse> coursePage() {
+        return CursorPageResponse.of(courses, size, Course::getId, CourseResponse::from);
+    }
+
+    @Benchmark
+    public CursorPageResponse<EnrollmentResponse> enrollmentPage() {
+        return CursorPageResponse.of(enrollments, size, Enrollment::getId, EnrollmentResponse::from);
+    }
+
+    /**
+     * Прежняя реализация {@code UserResponse.from}: роль читалась рефлексией на каждый объект.
+     */
+    private static UserResponse reflectiveUserResponse(User user) {
+        Object role;
+        try {
+            role = user.getClass().getMethod("getRole").invoke(user);
+        } catch (Exception ignored) {
+            role = null;
+        }
+        return new UserResponse(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getStatus(), role != null ? user.getRole() : null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.lms.bench;
+
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CursorPageResponse;
+import com.example.lms.dto.EnrollmentResponse;
+import com.example.lms.dto.UserResponse;
+import com.example.lms.entity.Course;
+import com.example.lms.entity.Enrollment;
+import com.example.lms.entity.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный путь ответа списочного эндпойнта: маппинг сущностей в DTO и JSON-сериализация страницы.
+ * <p>
+ * {@code ObjectMapper} собирается так же, как в приложении ({@link Jackson2ObjectMapperBuilder}),
+ * а JSON пишется в поток-заглушку, чтобы измерять сериализацию, а не рост буфера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"500", "10000"})
+    int size;
+
+    List<User> users;
+    List<Course> courses;
+    List<Enrollment> enrollments;
+
+    ObjectWriter writer;
+    OutputStream sink;
+
+    @Setup
+    public void setUp() {
+        users = BenchmarkData.users(size);
+        courses = BenchmarkData.courses(size);
+        enrollments = BenchmarkData.enrollments(users, courses);
+
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        sink = OutputStream.nullOutputStream();
+    }
+
+    @Benchmark
+    public void usersJson() throws IOException {
+        writer.writeValue(sink, CursorPageResponse.of(users, size, User::getId, UserResponse::from));
+    }
+
+    @Benchmark
+    public void coursesJson() throws IOException {
+        writer.writeValue(sink, CursorPageResponse.of(courses, size, Course::getId, CourseResponse::from));
+    }
+
+    @Benchmark
+    public void enrollmentsJson() throws IOException {
+        writer.writeValue(sink, CursorPageResponse.of(enrollments, size, Enrollment::getId, EnrollmentResponse::from));
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.lms.load;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетического набора данных в формате CSV, который принимает {@code DataInitializer}
+ * ({@code users.csv}, {@code courses.csv}, {@code enrollments.csv}).
+ * <p>
+ * Генерация детерминирована: одинаковые параметры и {@code seed} дают побайтно одинаковые файлы.
+ * Строки пишутся потоком, память зависит только от числа курсов (таблица распределения популярности).
+ * <ul>
+ *     <li>Пользователи: id 1 — администратор, следующие {@code teachers} (доля) — преподаватели, остальные —
+ *     студенты; около 7 % неактивны и 3 % заблокированы.</li>
+ *     <li>Число записей студента распределено геометрически со средним {@code enrollments / студентов},
+ *     поэтому часть студентов не записана никуда, а часть — на много курсов.</li>
+ *     <li>Курс для записи выбирается по закону Ципфа с показателем {@code skew}: курс с id 1 самый популярный,
+ *     id 2 — вдвое реже (при {@code skew=1}) и т. д. Так появляются несколько очень больших ростеров
+ *     и длинный хвост почти пустых курсов.</li>
+ * </ul>
+ * Запуск: {@code mvn -Ploadtest -DskipTests verify -Dloadtest.main=com.example.lms.load.DatasetGenerator
+ * -Dloadtest.args="users=2000000 courses=200000 enrollments=20000000 out=target/dataset"}.
+ */
+public final class DatasetGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Carol", "David", "Emma", "Frank", "Grace", "Henry", "Irene", "Jack",
+            "Kate", "Leo", "Maria", "Nick", "Olga", "Paul", "Rita", "Sam", "Tanya", "Victor"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Brown", "Taylor", "Miller", "Wilson", "Moore", "Clark", "Lewis", "Walker",
+            "Hall", "Young", "King", "Wright", "Scott", "Green", "Baker", "Adams", "Nelson", "Hill"
+    };
+    private static final String[] SUBJECTS = {
+            "Java", "Spring Boot", "SQL", "PostgreSQL", "Kotlin", "Algorithms", "Networks", "Linux",
+            "Docker", "Kubernetes", "Statistics", "Machine Learning", "Frontend", "Security", "Testing"
+    };
+    private static final String[] LEVELS = {"Basics", "Intermediate", "Advanced", "Workshop"};
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private DatasetGenerator() {
+    }
+
+    /**
+     * Параметры генерации.
+     *
+     * @param seed        зерно генератора случайных чисел
+     * @param users       пользователей всего (вместе с администратором и преподавателями)
+     * @param courses     курсов
+     * @param enrollments целевое число записей (фактическое отличается на доли процента)
+     * @param teachers    доля преподавателей среди пользователей
+     * @param skew        показатель распределения Ципфа для популярности курсов; 0 — равномерно
+     * @param out         каталог для CSV
+     */
+    record Options(long seed, int users, int courses, long enrollments, double teachers, double skew, Path out) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("Expected key=value: " + arg);
+                }
+                values.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+            Options options = new Options(
+                    Long.parseLong(values.getOrDefault("seed", "42")),
+                    Integer.parseInt(values.getOrDefault("users", "2000000")),
+                    Integer.parseInt(values.getOrDefault("courses", "200000")),
+                    Long.parseLong(values.getOrDefault("enrollments", "20000000")),
+                    Double.parseDouble(values.getOrDefault("teachers", "0.01")),
+                    Double.parseDouble(values.getOrDefault("skew", "1.0")),
+                    Path.of(values.getOrDefault("out", "target/dataset"))
+            );
+            if (options.users() < 2 || options.courses() < 1) {
+                throw new IllegalArgumentException("users must be at least 2 and courses at least 1");
+            }
+            return options;
+        }
+
+        int teacherCount() {
+            return (int) Math.min(users - 2, Math.round(users * teachers));
+        }
+
+        /**
+         * @return id первого студента; студенты занимают id до {@code users} включительно
+         */
+        long firstStudent() {
+            return 2L + teacherCount();
+        }
+    }
+
+    /**
+     * Итоги генерации.
+     *
+     * @param topCourses записей на 5 самых популярных курсах
+     */
+    record Summary(long users, long students, long courses, long enrollments, long[] topCourses) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        long startedAt = System.nanoTime();
+        Summary summary = generate(options);
+        long millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        System.out.printf("Generated %d users (%d students), %d courses, %d enrollments in %d ms into %s%n",
+                summary.users(), summary.students(), summary.courses(), summary.enrollments(), millis,
+                options.out().toAbsolutePath());
+        System.out.println("Enrollments on the most popular courses (ids 1..5): " + Arrays.toString(summary.topCourses()));
+    }
+
+    static Summary generate(Options options) throws IOException {
+        Files.createDirectories(options.out());
+        try (Writer users = writer(options.out().resolve("users.csv"));
+             Writer courses = writer(options.out().resolve("courses.csv"));
+             Writer enrollments = writer(options.out().resolve("enrollments.csv"))) {
+            writeUsers(options, new SplittableRandom(options.seed()), users);
+            writeCourses(options, new SplittableRandom(options.seed() + 1), courses);
+            long[] perCourse = new long[options.courses()];
+            long total = writeEnrollments(options, new SplittableRandom(options.seed() + 2), enrollments, perCourse);
+            return new Summary(options.users(), options.users() - options.firstStudent() + 1, options.courses(), total,
+                    Arrays.copyOf(perCourse, Math.min(5, perCourse.length)));
+        }
+    }
+
+    private static void writeUsers(Options options, SplittableRandom random, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        out.write("id,first_name,last_name,email,status,role\n");
+        for (long id = 1; id <= options.users(); id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int status = random.nextInt(100);
+            String role = id == 1 ? "ADMIN" : id < options.firstStudent() ? "TEACHER" : "STUDENT";
+            line.setLength(0);
+            line.append(id).append(',').append(first).append(',').append(last).append(',')
+                    .append(first.toLowerCase(Locale.ROOT)).append('.').append(last.toLowerCase(Locale.ROOT))
+                    .append('.').append(id).append("@example.com,")
+                    .append(status < 90 ? "ACTIVE" : status < 97 ? "INACTIVE" : "BLOCKED").append(',')
+                    .append(role).append('\n');
+            out.append(line);
+        }
+    }
+
+    private static void writeCourses(Options options, SplittableRandom random, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        out.write("id,title,description\n");
+        for (long id = 1; id <= options.courses(); id++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            String level = LEVELS[random.nextInt(LEVELS.length)];
+            line.setLength(0);
+            line.append(id).append(',').append(subject).append(' ').append(level).append(" #").append(id).append(',')
+                    .append(level).append(" course on ").append(subject).append('\n');
+            out.append(line);
+        }
+    }
+
+    /**
+     * Для каждого студента — случайное число записей на разные курсы, выбранные по Ципфу.
+     * Курсы студента пишутся по возрастанию id, пара (студент, курс) не повторяется.
+     */
+    private static long writeEnrollments(Options options, SplittableRandom random, Writer out, long[] perCourse)
+            throws IOException {
+        double[] cdf = zipfCdf(options.courses(), options.skew());
+        long students = options.users() - options.firstStudent() + 1;
+        double mean = (double) options.enrollments() / students;
+        // Геометрическое распределение на {0, 1, 2, ...} со средним mean
+        double logFailure = Math.log(mean / (mean + 1));
+        int maxPerStudent = Math.max(1, Math.min(options.courses() / 2, (int) Math.ceil(mean * 10)));
+
+        int[] chosen = new int[maxPerStudent];
+        StringBuilder line = new StringBuilder(32);
+        long total = 0;
+        out.write("student_id,course_id\n");
+        for (long studentId = options.firstStudent(); studentId <= options.users(); studentId++) {
+            int count = mean <= 0 ? 0
+                    : (int) Math.min(maxPerStudent, Math.floor(Math.log(1 - random.nextDouble()) / logFailure));
+            for (int i = 0; i < count; i++) {
+                int course;
+                do {
+                    course = sample(cdf, random.nextDouble());
+                } while (contains(chosen, i, course));
+                chosen[i] = course;
+            }
+            Arrays.sort(chosen, 0, count);
+            for (int i = 0; i < count; i++) {
+                perCourse[chosen[i]]++;
+                line.setLength(0);
+                line.append(studentId).append(',').append(chosen[i] + 1).append('\n');
+                out.append(line);
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Накопленное распределение Ципфа: вероятность курса с индексом {@code i} пропорциональна {@code 1 / (i + 1)^skew}.
+     */
+    private static double[] zipfCdf(int size, double skew) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1 / Math.pow(i + 1, skew);
+            cdf[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    private static int sample(double[] cdf, double u) {
+        int index = Arrays.binarySearch(cdf, u);
+        return Math.min(cdf.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Writer writer(Path path) throws IOException {
+        return new BufferedWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.lms.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогоняет сценарий заданным числом клиентов по закрытой модели: каждый клиент отправляет следующий
+ * запрос только после ответа на предыдущий. Задержки пишутся в HdrHistogram каждого клиента (мкс, 3 знака)
+ * и сливаются в конце.
+ * <p>
+ * Ответы делятся на успешные (2xx, 304), отказы, предусмотренные API под нагрузкой (409 — курс заполнен или
+ * дубль, 429/503 — допуск), и ошибки (остальные статусы и сбои соединения).
+ */
+final class LoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final int TRANSPORT_ERROR = -1;
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    LoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * @param clients  число одновременных клиентов
+     * @param duration сколько длится прогон (или пока сценарий не исчерпан)
+     */
+    ScenarioResult run(Scenario scenario, int clients, Duration duration) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ClientStats>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return drive(scenario, System.nanoTime() + duration.toNanos());
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        ClientStats total = new ClientStats();
+        for (Future<ClientStats> future : futures) {
+            total.add(future.get());
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        pool.shutdown();
+        return ScenarioResult.of(scenario.name(), clients, elapsedNanos, total.latencies, total.statuses);
+    }
+
+    private ClientStats drive(Scenario scenario, long deadline) {
+        ClientStats stats = new ClientStats();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Scenario.LoadRequest request = scenario.next(random);
+            if (request == null) {
+                break;
+            }
+            long startedAt = System.nanoTime();
+            int status;
+            try {
+                HttpResponse<byte[]> response = http.send(toHttp(request), HttpResponse.BodyHandlers.ofByteArray());
+                status = response.statusCode();
+                scenario.completed(request, response);
+            } catch (IOException e) {
+                status = TRANSPORT_ERROR;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long micros = Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - startedAt) / 1_000);
+            stats.latencies.recordValue(Math.max(1, micros));
+            stats.statuses.merge(status, 1L, Long::sum);
+        }
+        return stats;
+    }
+
+    private HttpRequest toHttp(Scenario.LoadRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (request.ifNoneMatch() != null) {
+            builder.header("If-None-Match", request.ifNoneMatch());
+        }
+        if (request.body() != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(request.method(), HttpRequest.BodyPublishers.ofString(request.body()));
+        } else {
+            builder.method(request.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Задержки и статусы ответов одного клиента.
+     */
+    private static final class ClientStats {
+
+        final Histogram latencies = new Histogram(MAX_LATENCY_MICROS, 3);
+        final Map<Integer, Long> statuses = new TreeMap<>();
+
+        void add(ClientStats other) {
+            latencies.add(other.latencies);
+            other.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        }
+    }
+
+    /**
+     * Итог сценария для отчёта; задержки в миллисекундах.
+     *
+     * @param statuses количество ответов по HTTP-статусу ({@code -1} — сбой соединения или таймаут)
+     */
+    record ScenarioResult(
+            String scenario,
+            int clients,
+            double seconds,
+            long requests,
+            double throughput,
+            double p50,
+            double p95,
+            double p99,
+            double max,
+            long ok,
+            long rejected,
+            long errors,
+            double rejectedRate,
+            double errorRate,
+            Map<Integer, Long> statuses
+    ) {
+
+        static ScenarioResult of(String scenario, int clients, long elapsedNanos,
+                                 Histogram latencies, Map<Integer, Long> statuses) {
+            long ok = 0;
+            long rejected = 0;
+            long errors = 0;
+            for (Map.Entry<Integer, Long> entry : statuses.entrySet()) {
+                int status = entry.getKey();
+                if ((status >= 200 && status < 300) || status == 304) {
+                    ok += entry.getValue();
+                } else if (status == 409 || status == 429 || status == 503) {
+                    rejected += entry.getValue();
+                } else {
+                    errors += entry.getValue();
+                }
+            }
+            long requests = latencies.getTotalCount();
+            double seconds = elapsedNanos / 1e9;
+            return new ScenarioResult(scenario, clients, round(seconds), requests, round(requests / seconds),
+                    millis(latencies.getValueAtPercentile(50)), millis(latencies.getValueAtPercentile(95)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getMaxValue()),
+                    ok, rejected, errors, rate(rejected, requests), rate(errors, requests), statuses);
+        }
+
+        private static double millis(long micros) {
+            return round(micros / 1000.0);
+        }
+
+        private static double rate(long count, long requests) {
+            return requests == 0 ? 0 : Math.round(count * 10_000.0 / requests) / 10_000.0;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
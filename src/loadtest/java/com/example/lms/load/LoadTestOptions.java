@@ -0,0 +1,116 @@
+package com.example.lms.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона из аргументов командной строки.
+ * <p>
+ * Аргументы вида {@code key=value} настраивают прогон (см. поля), аргументы вида {@code --name=value} передаются
+ * приложению как свойства Spring (например, {@code --app.enrollment.admission.enabled=false}).
+ *
+ * @param scenarios   сценарии в порядке запуска: {@code rush}, {@code roster}, {@code browse}
+ * @param clients     число одновременных клиентов (закрытая модель: каждый ждёт ответа перед следующим запросом)
+ * @param duration    длительность замера каждого сценария
+ * @param warmup      прогрев перед замером (результаты не учитываются)
+ * @param students    студентов для записи в {@code rush}
+ * @param courses     курсов в каталоге
+ * @param rushCourses сколько первых курсов каталога разбирают в {@code rush}; {@code roster} опрашивает
+ *                    столько же следующих курсов без ограничения мест
+ * @param capacity    вместимость разбираемых курсов; 0 — без ограничения
+ * @param pageSize    размер страницы ростера и каталога
+ * @param conditional {@code roster} отправляет {@code If-None-Match} с последним полученным ETag
+ * @param label       метка сборки в отчёте (например, хэш коммита)
+ * @param report      куда записать JSON-отчёт
+ * @param baseline    JSON-отчёт предыдущей сборки для сравнения; {@code null} — без сравнения
+ * @param dataset     каталог с CSV от {@link DatasetGenerator}; загружается до прогона, а студенты и курсы прогона
+ *                    добавляются после него; {@code null} — только данные прогона
+ * @param maxRegression допустимое падение пропускной способности и рост p99 относительно {@code baseline}
+ *                    (доля, 0.2 = 20 %); 0 — только сравнение, без проверки
+ * @param springArgs  аргументы для приложения
+ */
+record LoadTestOptions(
+        List<String> scenarios,
+        int clients,
+        Duration duration,
+        Duration warmup,
+        int students,
+        int courses,
+        int rushCourses,
+        int capacity,
+        int pageSize,
+        boolean conditional,
+        String label,
+        Path report,
+        Path baseline,
+        Path dataset,
+        double maxRegression,
+        List<String> springArgs
+) {
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value or --spring.property=value: " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                Arrays.asList(values.getOrDefault("scenarios", "rush,roster,browse").split(",")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                Duration.parse(values.getOrDefault("duration", "PT20S")),
+                Duration.parse(values.getOrDefault("warmup", "PT5S")),
+                Integer.parseInt(values.getOrDefault("students", "50000")),
+                Integer.parseInt(values.getOrDefault("courses", "1000")),
+                Integer.parseInt(values.getOrDefault("rush-courses", "20")),
+                Integer.parseInt(values.getOrDefault("capacity", "500")),
+                Integer.parseInt(values.getOrDefault("page-size", "50")),
+                Boolean.parseBoolean(values.getOrDefault("conditional", "true")),
+                values.getOrDefault("label", "local"),
+                Path.of(values.getOrDefault("report", "target/loadtest/report.json")),
+                values.containsKey("baseline") ? Path.of(values.get("baseline")) : null,
+                values.containsKey("dataset") ? Path.of(values.get("dataset")) : null,
+                Double.parseDouble(values.getOrDefault("max-regression", "0")),
+                List.copyOf(springArgs)
+        );
+        if (options.rushCourses() < 1 || options.rushCourses() > options.courses()) {
+            throw new IllegalArgumentException("rush-courses must be within 1..courses");
+        }
+        if (options.scenarios().contains("roster") && options.rushCourses() * 2 > options.courses()) {
+            throw new IllegalArgumentException("roster needs courses >= 2 * rush-courses");
+        }
+        return options;
+    }
+
+    /**
+     * @return параметры для отчёта (без путей и аргументов приложения)
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("clients", clients);
+        description.put("duration", duration.toString());
+        description.put("warmup", warmup.toString());
+        description.put("students", students);
+        description.put("courses", courses);
+        description.put("rushCourses", rushCourses);
+        description.put("capacity", capacity);
+        description.put("pageSize", pageSize);
+        description.put("conditional", conditional);
+        description.put("dataset", dataset != null ? dataset.toString() : null);
+        description.put("springArgs", springArgs);
+        return description;
+    }
+}
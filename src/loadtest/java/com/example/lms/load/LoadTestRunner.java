@@ -0,0 +1,209 @@
+package com.example.lms.load;
+
+import com.example.lms.LmsApplication;
+import com.example.lms.load.LoadDriver.ScenarioResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Точка входа профиля {@code loadtest}: поднимает приложение на встроенной H2 (профиль {@code test})
+ * со случайным портом, заполняет БД студентами и курсами и прогоняет сценарии через настоящий HTTP.
+ * <p>
+ * Итог каждого сценария — пропускная способность, p50/p95/p99/max и доли отказов и ошибок — пишется
+ * в JSON-отчёт ({@code report=}). С {@code baseline=} отчёт сравнивается с отчётом предыдущей сборки;
+ * с {@code max-regression=} процесс завершается с кодом 1, если пропускная способность упала или p99 вырос
+ * больше допустимого. С {@code dataset=} прогон идёт поверх набора данных {@link DatasetGenerator}.
+ * Параметры — в {@link LoadTestOptions}.
+ */
+public final class LoadTestRunner {
+
+    private static final int SEED_BATCH = 5_000;
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        int warmupStudents = Math.max(options.clients() * 20, options.students() / 10);
+        int rosterWriters = options.clients() * 20;
+
+        List<ScenarioResult> results = new ArrayList<>();
+        Instant startedAt = Instant.now();
+        try (ConfigurableApplicationContext app = start(options)) {
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+            Offsets offsets = new Offsets(maxId(jdbc, "users"), maxId(jdbc, "courses"));
+            seed(jdbc, options, offsets, warmupStudents + 2 * rosterWriters);
+            LoadDriver driver = new LoadDriver("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+
+            for (String name : options.scenarios()) {
+                if (!options.warmup().isZero()) {
+                    driver.run(scenario(name, options, offsets, true, warmupStudents, rosterWriters),
+                            options.clients(), options.warmup());
+                }
+                ScenarioResult result = driver.run(
+                        scenario(name, options, offsets, false, warmupStudents, rosterWriters),
+                        options.clients(), options.duration());
+                results.add(result);
+                System.out.printf("%-7s %8d req %9.1f req/s  p50 %7.2f ms  p95 %7.2f ms  p99 %7.2f ms  "
+                                + "rejected %5.1f%%  errors %5.1f%%  %s%n",
+                        result.scenario(), result.requests(), result.throughput(), result.p50(), result.p95(),
+                        result.p99(), result.rejectedRate() * 100, result.errorRate() * 100, result.statuses());
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", options.label());
+        report.put("startedAt", startedAt.toString());
+        report.put("java", System.getProperty("java.version"));
+        report.put("cpus", Runtime.getRuntime().availableProcessors());
+        report.put("options", options.describe());
+        report.put("scenarios", results);
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        json.writeValue(options.report().toFile(), report);
+        System.out.println("Report: " + options.report().toAbsolutePath());
+
+        if (options.baseline() != null && !compare(json.readTree(options.baseline().toFile()), results, options)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Приложение с профилем {@code test} (H2 в памяти). Свойства задаются аргументами командной строки:
+     * они старше {@code application-test.yml}, а аргументы {@code --name=value} пользователя — старше умолчаний.
+     */
+    private static ConfigurableApplicationContext start(LoadTestOptions options) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        // Как в проде: события пишутся в файл и публикуются в фоне, чтения объединяются в окне 100 мс,
+        // записи проходят допуск, а заполненный курс 2 с отклоняется без обращения к БД
+        properties.put("app.outbox.sink", "file");
+        properties.put("app.outbox.file.path", "target/loadtest/enrollment-events.ndjson");
+        properties.put("app.outbox.publisher.interval", "PT0.5S");
+        properties.put("app.read-coalescing.window", "100ms");
+        properties.put("app.enrollment.admission.enabled", "true");
+        properties.put("app.enrollment.capacity.full-ttl", "2s");
+        if (options.dataset() != null) {
+            // DataInitializer загружает набор данных (COPY на PostgreSQL, батчи на H2) до старта прогона
+            properties.put("app.data.initializer.enabled", "true");
+            properties.put("app.data.initializer.location", options.dataset().toAbsolutePath().toUri().toString());
+        }
+        for (String arg : options.springArgs()) {
+            int eq = arg.indexOf('=');
+            properties.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        String[] args = properties.entrySet().stream()
+                .map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(LmsApplication.class).profiles("test").run(args);
+    }
+
+    /**
+     * Студенты {@code 1..students} записываются в замере, следующие {@code warmupStudents} — при прогреве
+     * на отдельный курс {@code courses + 1}, чтобы прогрев не занимал места на курсах замера. После них идут
+     * студенты, которые записываются и отписываются в {@code roster} (см. {@link #scenario}).
+     * Все id отсчитываются от {@link Offsets}: после строк набора данных, если он загружен.
+     */
+    private static void seed(JdbcTemplate jdbc, LoadTestOptions options, Offsets offsets, int extraStudents) {
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+        long users = offsets.students() + options.students() + extraStudents;
+        for (long id = offsets.students() + 1; id <= users; id++) {
+            rows.add(new Object[]{id, "Student" + id, "Load", "student" + id + "@load.example.com", "ACTIVE", "STUDENT"});
+            if (rows.size() == SEED_BATCH || id == users) {
+                jdbc.batchUpdate("INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                        rows);
+                rows.clear();
+            }
+        }
+        long courses = offsets.courses() + options.courses() + 1;
+        for (long id = offsets.courses() + 1; id <= courses; id++) {
+            boolean rush = id <= offsets.courses() + options.rushCourses();
+            Integer capacity = rush && options.capacity() > 0 ? options.capacity() : null;
+            rows.add(new Object[]{id, "Course " + id, "Load test course " + id, capacity});
+            if (rows.size() == SEED_BATCH || id == courses) {
+                jdbc.batchUpdate("INSERT INTO courses (id, title, description, capacity) VALUES (?,?,?,?)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * {@code roster} опрашивает курсы сразу после разбираемых в {@code rush}: на них нет ограничения мест,
+     * поэтому записи сценария меняют ростеры. Прогрев и замер записывают разные пулы по {@code rosterWriters}
+     * студентов, чтобы замер начинал с записи, а не с отписки.
+     */
+    private static Scenario scenario(String name, LoadTestOptions options, Offsets offsets, boolean warmup,
+                                     int warmupStudents, int rosterWriters) {
+        long firstStudent = offsets.students() + 1;
+        long firstCourse = offsets.courses() + 1;
+        long firstWriter = firstStudent + options.students() + warmupStudents + (warmup ? rosterWriters : 0);
+        return switch (name) {
+            case "rush" -> warmup
+                    ? Scenario.registrationRush(firstStudent + options.students(),
+                    offsets.students() + options.students() + warmupStudents, firstCourse + options.courses(), 1)
+                    : Scenario.registrationRush(firstStudent, offsets.students() + options.students(), firstCourse,
+                    options.rushCourses());
+            case "roster" -> Scenario.rosterPolling(firstCourse + options.rushCourses(), options.rushCourses(),
+                    options.pageSize(), options.conditional(), firstWriter, rosterWriters);
+            // Каталог — вместе с курсами набора данных
+            case "browse" -> Scenario.catalogueBrowsing((int) offsets.courses() + options.courses(), options.pageSize());
+            default -> throw new IllegalArgumentException("Unknown scenario: " + name + " (rush, roster, browse)");
+        };
+    }
+
+    private static long maxId(JdbcTemplate jdbc, String table) {
+        Long max = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        return max != null ? max : 0;
+    }
+
+    /**
+     * Наибольшие id студентов и курсов до заполнения: ненулевые, если загружен набор данных.
+     */
+    private record Offsets(long students, long courses) {
+    }
+
+    /**
+     * Печатает изменение пропускной способности и p99 относительно предыдущего отчёта.
+     *
+     * @return {@code false}, если задан {@code max-regression} и он превышен хотя бы в одном сценарии
+     */
+    private static boolean compare(JsonNode baseline, List<ScenarioResult> results, LoadTestOptions options) {
+        boolean ok = true;
+        System.out.println("Compared with " + baseline.path("label").asText() + " (" + options.baseline() + "):");
+        for (ScenarioResult result : results) {
+            JsonNode before = null;
+            for (JsonNode scenario : baseline.path("scenarios")) {
+                if (scenario.path("scenario").asText().equals(result.scenario())) {
+                    before = scenario;
+                }
+            }
+            if (before == null) {
+                continue;
+            }
+            double throughputChange = change(before.path("throughput").asDouble(), result.throughput());
+            double p99Change = change(before.path("p99").asDouble(), result.p99());
+            boolean regressed = options.maxRegression() > 0
+                    && (-throughputChange > options.maxRegression() || p99Change > options.maxRegression());
+            System.out.printf("%-7s throughput %+6.1f%%  p99 %+6.1f%%%s%n", result.scenario(),
+                    throughputChange * 100, p99Change * 100, regressed ? "  REGRESSION" : "");
+            ok &= !regressed;
+        }
+        return ok;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
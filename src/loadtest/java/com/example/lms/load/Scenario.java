@@ -0,0 +1,123 @@
+package com.example.lms.load;
+
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Сценарий нагрузки: источник запросов, которые клиенты отправляют один за другим.
+ * Реализация вызывается из многих клиентских потоков одновременно.
+ */
+interface Scenario {
+
+    String name();
+
+    /**
+     * @return следующий запрос или {@code null}, если сценарий исчерпан (например, все студенты записаны)
+     */
+    LoadRequest next(ThreadLocalRandom random);
+
+    /**
+     * Вызывается после ответа на запрос сценария.
+     */
+    default void completed(LoadRequest request, HttpResponse<?> response) {
+    }
+
+    /**
+     * HTTP-запрос сценария.
+     *
+     * @param body        JSON-тело или {@code null}
+     * @param ifNoneMatch значение {@code If-None-Match} или {@code null}
+     */
+    record LoadRequest(String method, String path, String body, String ifNoneMatch) {
+    }
+
+    /**
+     * Запись на курсы в начале семестра: каждый студент из диапазона один раз записывается на случайный
+     * из «горячих» курсов. Сценарий заканчивается, когда студенты закончились; при заданной вместимости
+     * часть записей получает 409 (курс заполнен).
+     */
+    static Scenario registrationRush(long firstStudent, long lastStudent, long firstCourse, int courseCount) {
+        AtomicLong nextStudent = new AtomicLong(firstStudent);
+        return new Scenario() {
+            @Override
+            public String name() {
+                return "rush";
+            }
+
+            @Override
+            public LoadRequest next(ThreadLocalRandom random) {
+                long studentId = nextStudent.getAndIncrement();
+                if (studentId > lastStudent) {
+                    return null;
+                }
+                long courseId = firstCourse + random.nextInt(courseCount);
+                return new LoadRequest("POST", "/api/enrollments",
+                        "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}", null);
+            }
+        };
+    }
+
+    /**
+     * Дашборды опрашивают первую страницу ростеров курсов, а каждый десятый запрос — запись или отписка студента
+     * из пула {@code firstWriter..firstWriter + writers - 1} на одном из этих курсов, так что ростеры меняются
+     * во время опроса. Студенты пула по кругу записываются, а на следующем круге отписываются.
+     * С {@code conditional} клиент, как браузер, присылает последний полученный ETag и получает 304,
+     * пока ростер не менялся.
+     */
+    static Scenario rosterPolling(long firstCourse, int courseCount, int pageSize, boolean conditional,
+                                  long firstWriter, int writers) {
+        Map<String, String> etags = new ConcurrentHashMap<>();
+        AtomicLong nextWrite = new AtomicLong();
+        return new Scenario() {
+            @Override
+            public String name() {
+                return "roster";
+            }
+
+            @Override
+            public LoadRequest next(ThreadLocalRandom random) {
+                if (random.nextInt(10) == 0) {
+                    long write = nextWrite.getAndIncrement();
+                    long writer = write % writers;
+                    String body = "{\"studentId\":" + (firstWriter + writer)
+                            + ",\"courseId\":" + (firstCourse + writer % courseCount) + "}";
+                    return new LoadRequest(write / writers % 2 == 0 ? "POST" : "DELETE", "/api/enrollments", body,
+                            null);
+                }
+                String path = "/api/courses/" + (firstCourse + random.nextInt(courseCount)) + "/students?limit=" + pageSize;
+                return new LoadRequest("GET", path, null, conditional ? etags.get(path) : null);
+            }
+
+            @Override
+            public void completed(LoadRequest request, HttpResponse<?> response) {
+                if (conditional && response.statusCode() == 200) {
+                    response.headers().firstValue("ETag").ifPresent(etag -> etags.put(request.path(), etag));
+                }
+            }
+        };
+    }
+
+    /**
+     * Просмотр каталога: страницы списка курсов со случайного места и карточки случайных курсов.
+     */
+    static Scenario catalogueBrowsing(int courses, int pageSize) {
+        return new Scenario() {
+            @Override
+            public String name() {
+                return "browse";
+            }
+
+            @Override
+            public LoadRequest next(ThreadLocalRandom random) {
+                if (random.nextInt(10) < 6) {
+                    long after = random.nextInt(Math.max(1, courses - pageSize));
+                    return new LoadRequest("GET", "/api/courses?after=" + after + "&limit=" + pageSize, null, null);
+                }
+                return new LoadRequest("GET", "/api/courses/" + (1 + random.nextInt(courses)), null, null);
+            }
+        };
+    }
+}
@@ -4,12 +4,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Точка входа в приложение LMS.
  * Инициирует запуск Spring Boot и регистрацию компонентов приложения.
  */
 @SpringBootApplication
+@EnableScheduling
 public class LmsApplication {
 
     private static final Logger log = LoggerFactory.getLogger(LmsApplication.class);
@@ -0,0 +1,39 @@
+package com.example.lms.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Бинарные форматы ответов API для внутренних потребителей: CBOR ({@code application/cbor}, RFC 8949)
+ * и Smile ({@code application/x-jackson-smile}).
+ * <p>
+ * Формат выбирается по заголовку {@code Accept}; без него (и для {@code *}{@code /*}) ответ остаётся JSON,
+ * потому что JSON-конвертер стоит в списке раньше бинарных. Оба конвертера используют настройки
+ * {@code ObjectMapper} приложения ({@link Jackson2ObjectMapperBuilder} из Spring Boot),
+ * поэтому структура ответа совпадает с JSON до поля.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Smile заменяет повторяющиеся имена полей ссылками на первое вхождение, поэтому на страницах
+     * однотипных DTO выигрывает у CBOR в размере.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
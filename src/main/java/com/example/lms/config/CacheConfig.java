@@ -0,0 +1,62 @@
+package com.example.lms.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Конфигурация in-process кэша справочных данных (курсы, пользователи).
+ * <p>
+ * Каждый кэш ограничен по размеру и по времени жизни записи, поэтому потребление памяти предсказуемо,
+ * а изменения, сделанные в обход сервисов (например, напрямую в БД), видны не позже чем через TTL.
+ * Статистика (hit/miss/eviction) включена и публикуется Actuator как метрики {@code cache.*}.
+ * <p>
+ * Кэши привязаны к транзакциям: {@code @CacheEvict} на транзакционном методе сбрасывает запись после коммита.
+ * Иначе параллельное чтение между сбросом и коммитом закэшировало бы старую строку на весь TTL.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * Кэш {@link com.example.lms.dto.CourseResponse} по id курса.
+     */
+    public static final String COURSES = "courses";
+
+    /**
+     * Кэш {@link com.example.lms.dto.UserResponse} по id пользователя.
+     */
+    public static final String USERS = "users";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.courses.max-size:10000}") long coursesMaxSize,
+            @Value("${app.cache.courses.ttl:10m}") Duration coursesTtl,
+            @Value("${app.cache.users.max-size:100000}") long usersMaxSize,
+            @Value("${app.cache.users.ttl:5m}") Duration usersTtl
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Только явно описанные кэши: опечатка в имени кэша должна падать, а не создавать неограниченный кэш
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache(COURSES, boundedCache(coursesMaxSize, coursesTtl));
+        cacheManager.registerCustomCache(USERS, boundedCache(usersMaxSize, usersTtl));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static Cache<Object, Object> boundedCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+}
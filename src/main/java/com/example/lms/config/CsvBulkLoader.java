@@ -0,0 +1,355 @@
+package com.example.lms.config;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Быстрая загрузка таблиц из CSV.
+ * <p>
+ * Способ загрузки выбирается по базе данных:
+ * <ul>
+ *     <li>PostgreSQL — протокол {@code COPY ... FROM STDIN}: файл передаётся серверу потоком,
+ *     разбор CSV выполняет сам сервер;</li>
+ *     <li>остальные (например, H2) — {@link JdbcTemplate#batchUpdate} пачками по
+ *     {@code app.data.loader.batch-size} строк. CSV разбирается {@link CsvReader} в отдельном потоке,
+ *     поэтому разбор следующей пачки идёт параллельно со вставкой текущей.</li>
+ * </ul>
+ * Загрузка выполняется на соединении текущей транзакции (если она открыта).
+ */
+@Component
+public class CsvBulkLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvBulkLoader.class);
+
+    /**
+     * Сколько готовых пачек может ждать вставки; столько же переиспользуется повторно.
+     */
+    private static final int PIPELINE_DEPTH = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public CsvBulkLoader(JdbcTemplate jdbcTemplate, @Value("${app.data.loader.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Тип колонки: определяет, как значение из CSV передаётся в JDBC.
+     */
+    public enum ColumnType {
+        LONG,
+        TEXT
+    }
+
+    /**
+     * Колонка целевой таблицы. Имя должно совпадать с заголовком CSV.
+     */
+    public static final class Column {
+
+        private final String name;
+        private final ColumnType type;
+
+        private Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        public static Column longColumn(String name) {
+            return new Column(name, ColumnType.LONG);
+        }
+
+        public static Column textColumn(String name) {
+            return new Column(name, ColumnType.TEXT);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Итоги загрузки одной таблицы.
+     */
+    public static final class LoadReport {
+
+        private final String table;
+        private final String method;
+        private final long rows;
+        private final long millis;
+
+        LoadReport(String table, String method, long rows, long millis) {
+            this.table = table;
+            this.method = method;
+            this.rows = rows;
+            this.millis = millis;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public long getRowsPerSecond() {
+            return rows * 1000 / Math.max(1, millis);
+        }
+    }
+
+    /**
+     * Загружает CSV в таблицу. Первая строка файла — заголовок с именами колонок;
+     * каждая колонка заголовка должна присутствовать в {@code columns}, порядок может отличаться.
+     *
+     * @param resource CSV-файл
+     * @param table    имя таблицы
+     * @param columns  допустимые колонки таблицы
+     * @return итоги загрузки
+     */
+    public LoadReport load(Resource resource, String table, Column... columns) throws IOException {
+        long startedAt = System.nanoTime();
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8), 64 * 1024)) {
+            reader.mark(64 * 1024);
+            List<Column> fileColumns = resolveHeader(reader.readLine(), table, columns);
+            reader.reset();
+
+            long rows;
+            String method;
+            if (isPostgres()) {
+                rows = copyIn(reader, table, fileColumns);
+                method = "COPY";
+            } else {
+                rows = batchInsert(reader, table, fileColumns);
+                method = "BATCH";
+            }
+
+            LoadReport report = new LoadReport(table, method, rows,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+            log.info("Loaded {} rows into {} via {} in {} ms ({} rows/s)",
+                    report.getRows(), table, method, report.getMillis(), report.getRowsPerSecond());
+            return report;
+        }
+    }
+
+    /**
+     * @return {@code true}, если текущее соединение — PostgreSQL и доступен протокол COPY
+     */
+    private boolean isPostgres() {
+        return Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+    }
+
+    /**
+     * Сопоставляет заголовок CSV с колонками таблицы.
+     */
+    private static List<Column> resolveHeader(String header, String table, Column[] columns) {
+        if (header == null) {
+            throw new IllegalStateException("CSV for table " + table + " is empty");
+        }
+        List<Column> result = new ArrayList<>();
+        for (String name : header.split(",")) {
+            String normalized = name.trim().toLowerCase(Locale.ROOT);
+            Column column = Arrays.stream(columns)
+                    .filter(c -> c.name.equals(normalized))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "Unknown column '" + normalized + "' in CSV for table " + table));
+            result.add(column);
+        }
+        return result;
+    }
+
+    private long copyIn(Reader reader, String table, List<Column> columns) {
+        String sql = "COPY " + table + " (" + columnList(columns) + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            CopyManager copyManager = con.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                return copyManager.copyIn(sql, reader, 64 * 1024);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Вставка пачками: поток-разборщик заполняет пачки и отдаёт их в очередь,
+     * текущий поток забирает готовые пачки и выполняет batchUpdate.
+     * Отработавшие пачки возвращаются разборщику, поэтому память не растёт с размером файла.
+     */
+    private long batchInsert(Reader reader, String table, List<Column> columns) {
+        String sql = "insert into " + table + " (" + columnList(columns) + ") values ("
+                + columns.stream().map(c -> "?").collect(Collectors.joining(", ")) + ")";
+
+        BlockingQueue<Batch> filled = new ArrayBlockingQueue<>(PIPELINE_DEPTH + 1);
+        BlockingQueue<Batch> free = new ArrayBlockingQueue<>(PIPELINE_DEPTH);
+        for (int i = 0; i < PIPELINE_DEPTH; i++) {
+            free.add(new Batch(columns, batchSize));
+        }
+
+        Thread parser = new Thread(() -> parse(reader, columns, filled, free), "csv-parser-" + table);
+        parser.setDaemon(true);
+        parser.start();
+
+        long rows = 0;
+        try {
+            while (true) {
+                Batch batch = filled.take();
+                if (batch.error != null) {
+                    throw new IllegalStateException("Failed to parse CSV for table " + table, batch.error);
+                }
+                if (batch.size == 0) {
+                    return rows;
+                }
+                jdbcTemplate.batchUpdate(sql, batch);
+                rows += batch.size;
+                batch.size = 0;
+                free.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading table " + table, e);
+        } finally {
+            parser.interrupt();
+        }
+    }
+
+    private static void parse(Reader reader, List<Column> columns, BlockingQueue<Batch> filled, BlockingQueue<Batch> free) {
+        try {
+            CsvReader csv = new CsvReader(reader);
+            csv.next(); // header
+
+            Batch batch = free.take();
+            while (csv.next()) {
+                if (csv.fieldCount() != columns.size()) {
+                    throw new IOException("Expected " + columns.size() + " fields but got "
+                            + csv.fieldCount() + " at line " + csv.lineNumber());
+                }
+                batch.add(csv);
+                if (batch.size == batch.capacity) {
+                    filled.put(batch);
+                    batch = free.take();
+                }
+            }
+            if (batch.size > 0) {
+                filled.put(batch);
+            }
+            filled.put(Batch.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            filled.offer(Batch.failed(e));
+        }
+    }
+
+    private static String columnList(List<Column> columns) {
+        return columns.stream().map(Column::getName).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Пачка строк в поколоночном виде: числовые колонки хранятся в {@code long[]} без упаковки.
+     */
+    private static final class Batch implements BatchPreparedStatementSetter {
+
+        static final Batch END = new Batch(List.of(), 0);
+
+        private final ColumnType[] types;
+        private final long[][] longs;
+        private final String[][] texts;
+        private final boolean[][] nulls;
+        private final int capacity;
+        private int size;
+        private Exception error;
+
+        Batch(List<Column> columns, int capacity) {
+            this.capacity = capacity;
+            this.types = new ColumnType[columns.size()];
+            this.longs = new long[columns.size()][];
+            this.texts = new String[columns.size()][];
+            this.nulls = new boolean[columns.size()][capacity];
+            for (int i = 0; i < columns.size(); i++) {
+                types[i] = columns.get(i).type;
+                if (types[i] == ColumnType.LONG) {
+                    longs[i] = new long[capacity];
+                } else {
+                    texts[i] = new String[capacity];
+                }
+            }
+        }
+
+        static Batch failed(Exception error) {
+            Batch batch = new Batch(List.of(), 0);
+            batch.error = error;
+            return batch;
+        }
+
+        void add(CsvReader csv) {
+            for (int col = 0; col < types.length; col++) {
+                boolean isNull = csv.isEmpty(col);
+                nulls[col][size] = isNull;
+                if (types[col] == ColumnType.LONG) {
+                    longs[col][size] = isNull ? 0 : csv.getLong(col);
+                } else {
+                    texts[col][size] = isNull ? null : csv.getString(col);
+                }
+            }
+            size++;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int row) throws SQLException {
+            for (int col = 0; col < types.length; col++) {
+                if (types[col] == ColumnType.LONG) {
+                    if (nulls[col][row]) {
+                        ps.setNull(col + 1, Types.BIGINT);
+                    } else {
+                        ps.setLong(col + 1, longs[col][row]);
+                    }
+                } else {
+                    ps.setString(col + 1, texts[col][row]);
+                }
+            }
+        }
+
+        @Override
+        public int getBatchSize() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.lms.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Потоковый разбор CSV без регулярных выражений и без выделения памяти на каждую строку.
+ * <p>
+ * Символы текущей записи копируются в переиспользуемый буфер, а поля хранятся как смещения в нём.
+ * Строка ({@link String}) создаётся только по запросу через {@link #getString(int)},
+ * числа разбираются прямо из буфера через {@link #getLong(int)}.
+ * <p>
+ * Поддерживается:
+ * <ul>
+ *     <li>поля в кавычках, в том числе с запятыми, переводами строк и экранированием {@code ""},</li>
+ *     <li>пробелы вокруг разделителей (обрезаются у полей без кавычек),</li>
+ *     <li>окончания строк {@code \n}, {@code \r\n}, {@code \r},</li>
+ *     <li>пустые строки (пропускаются).</li>
+ * </ul>
+ * Экземпляр не потокобезопасен.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buf = new char[64 * 1024];
+    private int pos;
+    private int limit;
+
+    private char[] record = new char[256];
+    private int recordLen;
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+    private boolean quoted;
+
+    private long lineNumber;
+    private long physicalLines;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Переходит к следующей непустой записи.
+     *
+     * @return {@code false}, если данных больше нет
+     * @throws IOException при ошибке чтения или некорректном CSV
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                return false;
+            }
+            lineNumber = ++physicalLines;
+            parseRecord(c);
+
+            boolean blank = fieldCount == 1 && !quoted && starts[0] == ends[0];
+            if (!blank) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return количество полей в текущей записи
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return номер строки файла, на которой начинается текущая запись (с 1)
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    public String getString(int field) {
+        checkField(field);
+        return new String(record, starts[field], ends[field] - starts[field]);
+    }
+
+    public boolean isEmpty(int field) {
+        checkField(field);
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * Разбирает поле как целое число без создания промежуточной строки.
+     *
+     * @throws NumberFormatException если поле не является целым числом
+     */
+    public long getLong(int field) {
+        checkField(field);
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = i < end && record[i] == '-';
+        if (negative) {
+            i++;
+        }
+        if (i == end) {
+            throw invalidNumber(field);
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw invalidNumber(field);
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void parseRecord(int c) throws IOException {
+        recordLen = 0;
+        fieldCount = 0;
+        quoted = false;
+
+        while (true) {
+            while (c == ' ' || c == '\t') {
+                c = read();
+            }
+            int start = recordLen;
+            int end;
+
+            if (c == '"') {
+                quoted = true;
+                while (true) {
+                    c = read();
+                    if (c == EOF) {
+                        throw new IOException("Unterminated quoted field at line " + lineNumber);
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    }
+                    if (c == '\n') {
+                        physicalLines++;
+                    }
+                    append((char) c);
+                }
+                end = recordLen;
+                while (c == ' ' || c == '\t') {
+                    c = read();
+                }
+                if (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    throw new IOException("Unexpected character after quoted field at line " + lineNumber);
+                }
+            } else {
+                end = start;
+                while (c != ',' && c != '\n' && c != '\r' && c != EOF) {
+                    append((char) c);
+                    if (c != ' ' && c != '\t') {
+                        end = recordLen;
+                    }
+                    c = read();
+                }
+            }
+            addField(start, end);
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                // \r\n — один перевод строки; символ после одиночного \r возвращаем в буфер
+                if (read() != '\n' && pos > 0) {
+                    pos--;
+                }
+            }
+            return;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit) {
+            limit = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buf[pos++];
+    }
+
+    private void append(char c) {
+        if (recordLen == record.length) {
+            char[] grown = new char[record.length * 2];
+            System.arraycopy(record, 0, grown, 0, recordLen);
+            record = grown;
+        }
+        record[recordLen++] = c;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            int[] grownStarts = new int[starts.length * 2];
+            int[] grownEnds = new int[ends.length * 2];
+            System.arraycopy(starts, 0, grownStarts, 0, fieldCount);
+            System.arraycopy(ends, 0, grownEnds, 0, fieldCount);
+            starts = grownStarts;
+            ends = grownEnds;
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException(
+                    "Field " + field + " is out of range at line " + lineNumber + " (fields: " + fieldCount + ")");
+        }
+    }
+
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("Invalid number '" + getString(field) + "' at line " + lineNumber);
+    }
+}
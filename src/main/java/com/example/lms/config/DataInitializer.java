@@ -1,27 +1,34 @@
 package com.example.lms.config;
 
+import com.example.lms.config.CsvBulkLoader.LoadReport;
+import com.example.lms.repository.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import static com.example.lms.config.CsvBulkLoader.Column.longColumn;
+import static com.example.lms.config.CsvBulkLoader.Column.textColumn;
 
 /**
  * Инициализация демо-данных из CSV.
  * <p>
- * Вставка выполняется через JdbcTemplate, чтобы гарантированно сохранять id из CSV
- * и не зависеть от @GeneratedValue(strategy = IDENTITY).
+ * Вставка выполняется через {@link CsvBulkLoader} (COPY на PostgreSQL, JDBC-батчи на остальных БД),
+ * чтобы гарантированно сохранять id из CSV. После загрузки последовательности id сдвигаются за max(id),
+ * а счётчики занятых мест на курсах пересчитываются по загруженным записям.
  * <p>
- * Ожидаемые CSV:
+ * Ожидаемые CSV в каталоге {@code app.data.initializer.location} (по умолчанию {@code classpath:data/};
+ * для сгенерированного набора данных — например, {@code file:target/dataset/}):
  * <ul>
- *     <li>data/users.csv: id,first_name,last_name,email,status,role</li>
- *     <li>data/courses.csv: id,title,description,teacher_id</li>
- *     <li>data/enrollments.csv: student_id,course_id</li>
+ *     <li>users.csv: id,first_name,last_name,email,status,role</li>
+ *     <li>courses.csv: id,title,description[,capacity]</li>
+ *     <li>enrollments.csv: student_id,course_id</li>
  * </ul>
  */
 @ConditionalOnProperty(
@@ -32,10 +39,22 @@ import java.nio.charset.StandardCharsets;
 @Component
 public class DataInitializer implements CommandLineRunner {
 
-    private final JdbcTemplate jdbcTemplate;
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
-    public DataInitializer(JdbcTemplate jdbcTemplate) {
+    private final JdbcTemplate jdbcTemplate;
+    private final CsvBulkLoader loader;
+    private final CourseRepository courseRepository;
+    private final ResourceLoader resourceLoader;
+    private final String location;
+
+    public DataInitializer(JdbcTemplate jdbcTemplate, CsvBulkLoader loader, CourseRepository courseRepository,
+                           ResourceLoader resourceLoader,
+                           @Value("${app.data.initializer.location:classpath:data/}") String location) {
         this.jdbcTemplate = jdbcTemplate;
+        this.loader = loader;
+        this.courseRepository = courseRepository;
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
     }
 
     @Override
@@ -46,136 +65,73 @@ public class DataInitializer implements CommandLineRunner {
             return;
         }
 
-        insertUsersFromCsv();
-        bumpIdentitySequence("users");
+        long startedAt = System.nanoTime();
+        long rows = 0;
+
+        rows += insertUsersFromCsv().getRows();
+        bumpIdSequence("users");
+
+        rows += insertCoursesFromCsv().getRows();
+        bumpIdSequence("courses");
 
-        insertCoursesFromCsv();
-        bumpIdentitySequence("courses");
+        rows += insertEnrollmentsFromCsv().getRows();
+        bumpIdSequence("enrollments");
+        courseRepository.recountSeats();
 
-        insertEnrollmentsFromCsv();
-        bumpIdentitySequenceIfExists("enrollments");
+        long millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Demo data loaded: {} rows in {} ms ({} rows/s)", rows, millis, rows * 1000 / millis);
     }
 
     /**
      * users.csv
      * id,first_name,last_name,email,status,role
      */
-    private void insertUsersFromCsv() throws Exception {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        new ClassPathResource("data/users.csv").getInputStream(),
-                        StandardCharsets.UTF_8
-                )
-        )) {
-            reader.readLine(); // header
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
-
-                String[] p = split(line);
-
-                int id = Integer.parseInt(p[0]);
-                String firstName = p[1];
-                String lastName = p[2];
-                String email = p[3];
-                String status = p[4]; // ACTIVE / INACTIVE / ...
-                String role = p[5];   // STUDENT / TEACHER / ADMIN
-
-                jdbcTemplate.update(
-                        "insert into users (id, first_name, last_name, email, status, role) values (?, ?, ?, ?, ?, ?)",
-                        id, firstName, lastName, email, status, role
-                );
-            }
-        }
+    private LoadReport insertUsersFromCsv() throws Exception {
+        return loader.load(csv("users.csv"), "users",
+                longColumn("id"),
+                textColumn("first_name"),
+                textColumn("last_name"),
+                textColumn("email"),
+                textColumn("status"), // ACTIVE / INACTIVE / ...
+                textColumn("role"));  // STUDENT / TEACHER / ADMIN
     }
 
     /**
      * courses.csv
-     * id,title,description
+     * id,title,description[,capacity]
      */
-    private void insertCoursesFromCsv() throws Exception {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        new ClassPathResource("data/courses.csv").getInputStream(),
-                        StandardCharsets.UTF_8
-                )
-        )) {
-            reader.readLine(); // header
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
-
-                String[] p = split(line);
-
-                int id = Integer.parseInt(p[0]);
-                String title = p[1];
-                String description = p[2];
-//                int teacherId = Integer.parseInt(p[3]);
-
-                jdbcTemplate.update(
-                        "insert into courses (id, title, description) values (?, ?, ?)",
-                        id, title, description
-//                        id, title, description, teacherId
-                );
-            }
-        }
+    private LoadReport insertCoursesFromCsv() throws Exception {
+        return loader.load(csv("courses.csv"), "courses",
+                longColumn("id"),
+                textColumn("title"),
+                textColumn("description"),
+                longColumn("capacity")); // необязательная колонка; пусто — без ограничения
     }
 
     /**
      * enrollments.csv
      * student_id,course_id
      */
-    private void insertEnrollmentsFromCsv() throws Exception {
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(
-                        new ClassPathResource("data/enrollments.csv").getInputStream(),
-                        StandardCharsets.UTF_8
-                )
-        )) {
-            reader.readLine(); // header
-            String line;
-
-            while ((line = reader.readLine()) != null) {
-                if (line.isBlank()) continue;
-
-                String[] p = split(line);
-
-                int studentId = Integer.parseInt(p[0]);
-                int courseId = Integer.parseInt(p[1]);
-
-                jdbcTemplate.update(
-                        "insert into enrollments (student_id, course_id) values (?, ?)",
-                        studentId, courseId
-                );
-            }
-        }
+    private LoadReport insertEnrollmentsFromCsv() throws Exception {
+        return loader.load(csv("enrollments.csv"), "enrollments",
+                longColumn("student_id"),
+                longColumn("course_id"));
     }
 
-    /**
-     * Поднимает значение identity/sequence до max(id) после ручной вставки id.
-     * Иначе следующий insert без id может попытаться использовать уже занятый id.
-     */
-    private void bumpIdentitySequence(String tableName) {
-        jdbcTemplate.execute(
-                "select setval(pg_get_serial_sequence('" + tableName + "', 'id'), " +
-                        "coalesce((select max(id) from " + tableName + "), 1), true)"
-        );
+    private Resource csv(String fileName) {
+        return resourceLoader.getResource(location + fileName);
     }
 
     /**
-     * То же самое, но без падения, если у таблицы нет id/sequence.
+     * Сдвигает последовательность id таблицы ({@code <table>_seq}) за max(id) после ручной вставки id.
+     * Иначе следующий insert без id может попытаться использовать уже занятый id.
+     * <p>
+     * {@code ALTER SEQUENCE ... RESTART} поддерживается и PostgreSQL, и H2.
+     * Шаг последовательности (allocationSize) не меняется: pooled-lo оптимизатор Hibernate
+     * воспринимает следующее значение как начало блока id.
      */
-    private void bumpIdentitySequenceIfExists(String tableName) {
-        try {
-            bumpIdentitySequence(tableName);
-        } catch (Exception ignored) {
-            // например, если у enrollments нет id или sequence — пропускаем
-        }
-    }
-
-    private String[] split(String line) {
-        return line.split("\\s*,\\s*");
+    private void bumpIdSequence(String tableName) {
+        Long next = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from " + tableName, Long.class);
+        jdbcTemplate.execute("alter sequence " + tableName + "_seq restart with " + next);
     }
 }
@@ -0,0 +1,125 @@
+package com.example.lms.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import com.example.lms.service.EnrollmentAdmission;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение числа одновременно обрабатываемых запросов {@code /api/**} в режиме виртуальных потоков.
+ * <p>
+ * Фильтр создаётся, только если Tomcat действительно работает на виртуальных потоках
+ * ({@code spring.threads.virtual.enabled=true} на JRE 21+, {@link Threading#VIRTUAL}); на JRE 17 свойство
+ * игнорируется, пул платформенных потоков ограничен сам, и второе ограничение ему не нужно.
+ * <p>
+ * На виртуальных потоках число одновременных запросов больше не ограничено размером пула. Почти каждый запрос API
+ * идёт в БД, поэтому без ограничения тысячи запросов встали бы в очередь Hikari и падали бы
+ * по {@code connectionTimeout}. Фильтр берёт разрешения из того же семафора, что и {@link EnrollmentAdmission}
+ * ({@code app.enrollment.admission.max-concurrent}, по умолчанию — размер пула Hikari), поэтому одновременных
+ * обращений к БД не больше размера пула, а не двух лимитов в сумме. Запросы ждут в очереди семафора: ожидание
+ * паркует виртуальный поток и не занимает ни соединение, ни поток-носитель. Если разрешение не получено
+ * за {@code app.web.db-concurrency.acquire-timeout}, клиент получает 503 с {@code Retry-After}.
+ * Запись и отписку при включённом допуске фильтр пропускает: их разрешение берёт {@link EnrollmentAdmission}
+ * без ожидания.
+ * <p>
+ * Асинхронные ответы (NDJSON-выгрузки) освобождают разрешение при переходе в async-режим,
+ * дальше их ограничивает только пул соединений.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DbConcurrencyLimitFilter.class);
+
+    private final EnrollmentAdmission admission;
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+    private final ObjectMapper objectMapper;
+
+    public DbConcurrencyLimitFilter(
+            EnrollmentAdmission admission,
+            @Value("${app.web.db-concurrency.acquire-timeout:5s}") Duration acquireTimeout,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.admission = admission;
+        this.permits = admission.concurrencyPermits();
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("lms.web.db-concurrency.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a database concurrency permit")
+                .register(meterRegistry);
+        log.info("Virtual-thread mode: at most {} concurrent /api requests", admission.maxConcurrent());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!request.getRequestURI().startsWith("/api/")) {
+            return true;
+        }
+        return admission.isEnabled() && isEnrollmentWrite(request);
+    }
+
+    /**
+     * Запись, пакетная запись и отписка — их ограничивает {@link EnrollmentAdmission}.
+     */
+    private static boolean isEnrollmentWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return request.getRequestURI().startsWith("/api/enrollments")
+                && ("POST".equals(method) || "DELETE".equals(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejectBusy(response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void rejectBusy(HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "SERVICE_UNAVAILABLE");
+        body.put("message", "Too many concurrent requests, retry later.");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.lms.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Явное принятие под Flyway схемы, созданной раньше Hibernate ({@code ddl-auto: create}).
+ * <p>
+ * В такой БД уже есть таблицы V1, но нет {@code flyway_schema_history}, и Flyway на ней останавливается.
+ * С {@code app.flyway.adopt-existing-schema=true} схема принимается за версию 1 ({@code baseline}), только если
+ * в ней есть все таблицы и колонки V1 и уникальный индекс {@code (student_id, course_id)}, на который опирается
+ * запись на курс. Иначе приложение не стартует, а в ошибке перечислено, чего не хватает. Пустая БД и БД
+ * с историей миграций мигрируют как обычно, поэтому свойство достаточно включить на один запуск.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(FlywayConfig.class);
+
+    /**
+     * Таблицы и колонки миграции {@code V1__initial_schema.sql}.
+     */
+    static final Map<String, List<String>> V1_COLUMNS = v1Columns();
+
+    @Bean
+    @ConditionalOnProperty(name = "app.flyway.adopt-existing-schema", havingValue = "true")
+    public FlywayMigrationStrategy adoptExistingSchema() {
+        return FlywayConfig::migrate;
+    }
+
+    /**
+     * Принимает существующую схему за версию 1, если она совпадает с V1, и применяет остальные миграции.
+     *
+     * @throws IllegalStateException если в БД без истории миграций есть таблицы, но схема не совпадает с V1
+     */
+    static void migrate(Flyway flyway) {
+        if (flyway.info().applied().length == 0) {
+            List<String> mismatches;
+            try (Connection connection = flyway.getConfiguration().getDataSource().getConnection()) {
+                mismatches = v1Mismatches(connection);
+            } catch (SQLException e) {
+                throw new FlywayException("Failed to inspect the existing schema", e);
+            }
+            if (mismatches != null) {
+                if (!mismatches.isEmpty()) {
+                    throw new IllegalStateException("Existing schema does not match migration V1, refusing to adopt it: "
+                            + String.join("; ", mismatches));
+                }
+                log.warn("Adopting the existing schema as version {}", flyway.getConfiguration().getBaselineVersion());
+                flyway.baseline();
+            }
+        }
+        flyway.migrate();
+    }
+
+    /**
+     * @return расхождения с V1; пустой список — схема совпадает; {@code null} — в схеме нет таблиц
+     */
+    private static List<String> v1Mismatches(Connection connection) throws SQLException {
+        DatabaseMetaData meta = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+
+        Map<String, String> tables = new HashMap<>();
+        try (ResultSet rs = meta.getTables(catalog, schema, "%", new String[]{"TABLE"})) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                tables.put(name.toLowerCase(Locale.ROOT), name);
+            }
+        }
+        if (tables.isEmpty()) {
+            return null;
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (Map.Entry<String, List<String>> table : V1_COLUMNS.entrySet()) {
+            String name = tables.get(table.getKey());
+            if (name == null) {
+                mismatches.add("missing table " + table.getKey());
+                continue;
+            }
+            Set<String> columns = new HashSet<>();
+            try (ResultSet rs = meta.getColumns(catalog, schema, name, "%")) {
+                while (rs.next()) {
+                    columns.add(rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            for (String column : table.getValue()) {
+                if (!columns.contains(column)) {
+                    mismatches.add("missing column " + table.getKey() + "." + column);
+                }
+            }
+        }
+        String enrollments = tables.get("enrollments");
+        if (enrollments != null && !hasUniqueIndex(meta, catalog, schema, enrollments, Set.of("student_id", "course_id"))) {
+            mismatches.add("missing unique index on enrollments (student_id, course_id)");
+        }
+        return mismatches;
+    }
+
+    private static boolean hasUniqueIndex(DatabaseMetaData meta, String catalog, String schema, String table,
+                                          Set<String> columns) throws SQLException {
+        Map<String, Set<String>> indexes = new HashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(catalog, schema, table, true, false)) {
+            while (rs.next()) {
+                String index = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    indexes.computeIfAbsent(index, i -> new HashSet<>()).add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return indexes.containsValue(columns);
+    }
+
+    private static Map<String, List<String>> v1Columns() {
+        Map<String, List<String>> columns = new LinkedHashMap<>();
+        columns.put("users", List.of("id", "first_name", "last_name", "email", "role", "status"));
+        columns.put("courses", List.of("id", "title", "description", "duration", "start_date", "capacity",
+                "enrolled_count"));
+        columns.put("enrollments", List.of("id", "student_id", "course_id"));
+        columns.put("enrollment_outbox", List.of("id", "event_type", "student_id", "course_id", "created_at"));
+        return columns;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.lms.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Источник соединений, который отправляет read-only транзакции в реплику, а всё остальное — в основную БД.
+ * <p>
+ * Решение принимается при получении соединения, поэтому источник оборачивается в
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: менеджер транзакций берёт
+ * соединение ещё до того, как транзакция помечена read-only, а физическое соединение нужно только
+ * к первому SQL-выражению. Запрос, помеченный атрибутом {@link #PRIMARY_ONLY_ATTRIBUTE}
+ * (окно read-your-writes), читает из основной БД.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Атрибут HTTP-запроса: все его чтения идут в основную БД.
+     */
+    public static final String PRIMARY_ONLY_ATTRIBUTE = ReadWriteRoutingDataSource.class.getName() + ".PRIMARY_ONLY";
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.primaryRoutes = routeCounter(meterRegistry, Route.PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, Route.REPLICA);
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Route route) {
+        return Counter.builder("lms.datasource.connections")
+                .description("Physical connections taken by the read/write routing data source")
+                .tag("route", route.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !primaryOnlyRequest()
+                ? Route.REPLICA : Route.PRIMARY;
+        (route == Route.REPLICA ? replicaRoutes : primaryRoutes).increment();
+        return route;
+    }
+
+    private static boolean primaryOnlyRequest() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null
+                && request.getAttribute(PRIMARY_ONLY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+}
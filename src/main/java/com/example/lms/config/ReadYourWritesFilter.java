@@ -0,0 +1,55 @@
+package com.example.lms.config;
+
+import com.example.lms.service.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Направляет в основную БД чтения о пользователе или курсе, которые сами или чьи записи изменились в пределах окна
+ * {@link ReadYourWrites}: {@code GET /api/users/{id}/**} и {@code GET /api/courses/{id}/**}.
+ * Остальные read-only запросы читают из реплики (см. {@link ReadWriteRoutingDataSource}).
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Pattern ENTITY_PATH = Pattern.compile("^/api/(users|courses)/(\\d+)(/.*)?$");
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !(HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Matcher matcher = ENTITY_PATH.matcher(request.getRequestURI());
+        if (matcher.matches()) {
+            long id = Long.parseLong(matcher.group(2));
+            boolean pinned = "users".equals(matcher.group(1))
+                    ? readYourWrites.isUserPinned(id)
+                    : readYourWrites.isCoursePinned(id);
+            if (pinned) {
+                request.setAttribute(ReadWriteRoutingDataSource.PRIMARY_ONLY_ATTRIBUTE, Boolean.TRUE);
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.lms.controller;
+
+import com.example.lms.config.BinaryFormatsConfig;
+import com.example.lms.config.ReadWriteRoutingDataSource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Условный GET по заранее известному ETag.
+ * <p>
+ * В отличие от стандартной обработки ETag в Spring MVC (сравнение после формирования ответа),
+ * ETag здесь известен до выборки данных: при совпадении {@code If-None-Match} тело не вычисляется вовсе.
+ * {@code Cache-Control: no-cache} разрешает клиенту хранить ответ, но требует перепроверять его ETag.
+ * Тело читается из основной БД ({@link ReadWriteRoutingDataSource#PRIMARY_ONLY_ATTRIBUTE}): ETag взят
+ * до выборки, и ответ из отстающей реплики ушёл бы клиенту под более новым ETag.
+ * <p>
+ * Один и тот же ресурс отдаётся в JSON, CBOR или Smile ({@link BinaryFormatsConfig}), поэтому к ETag
+ * добавляется суффикс формата, выбранного по {@code Accept}, и ответ несёт {@code Vary: Accept}.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * @param request запрос с необязательными заголовками {@code If-None-Match} и {@code Accept}
+     * @param etag    строгий ETag текущей версии ресурса (в кавычках)
+     * @param body    вычисление тела; вызывается, только если версия у клиента устарела
+     * @return 304 без тела или 200 с телом; оба ответа несут {@code ETag}
+     */
+    static <T> ResponseEntity<T> respond(WebRequest request, String etag, Supplier<T> body) {
+        String variantTag = withFormat(etag, request.getHeader(HttpHeaders.ACCEPT));
+        if (matches(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), ETag.parse(variantTag).get(0))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(variantTag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        request.setAttribute(ReadWriteRoutingDataSource.PRIMARY_ONLY_ATTRIBUTE, Boolean.TRUE,
+                RequestAttributes.SCOPE_REQUEST);
+        T value = body.get();
+        return ResponseEntity.ok()
+                .eTag(variantTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(value);
+    }
+
+    /**
+     * Для {@code If-None-Match} используется слабое сравнение (RFC 9110, 13.1.2): признак {@code W/} не учитывается.
+     * {@code *} не поддерживается: без выборки неизвестно, существует ли ресурс.
+     */
+    private static boolean matches(String[] ifNoneMatch, ETag current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String header : ifNoneMatch) {
+            for (ETag candidate : ETag.parse(header)) {
+                if (candidate.tag().equals(current.tag())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Добавляет к ETag суффикс бинарного формата, если он — самый предпочтительный в {@code Accept}.
+     * Для JSON (и при отсутствии или ошибке разбора {@code Accept}) ETag не меняется.
+     */
+    private static String withFormat(String etag, String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return etag;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return etag;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            if (type.equalsTypeAndSubtype(MediaType.APPLICATION_CBOR)) {
+                return etag.substring(0, etag.length() - 1) + "-cbor\"";
+            }
+            if (type.equalsTypeAndSubtype(BinaryFormatsConfig.APPLICATION_SMILE)) {
+                return etag.substring(0, etag.length() - 1) + "-smile\"";
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return etag;
+            }
+        }
+        return etag;
+    }
+}
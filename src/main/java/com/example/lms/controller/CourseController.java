@@ -1,21 +1,39 @@
 package com.example.lms.controller;
 
 import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CourseSearchResponse;
+import com.example.lms.dto.CourseStatsResponse;
+import com.example.lms.dto.CursorPageResponse;
 import com.example.lms.dto.UserResponse;
 import com.example.lms.entity.Course;
-import com.example.lms.entity.Enrollment;
 import com.example.lms.repository.CourseRepository;
 import com.example.lms.repository.EnrollmentRepository;
+import com.example.lms.service.CatalogVersions;
+import com.example.lms.service.CourseService;
+import com.example.lms.service.ExportService;
+import com.example.lms.service.ReadCoalescer;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * REST API для чтения курсов и получения производных представлений (например, студентов курса).
+ * <p>
+ * Список курсов, карточка курса и ростер отдаются со строгим ETag из {@link CatalogVersions}:
+ * запрос с актуальным {@code If-None-Match} получает 304 без обращения к БД. Одновременные одинаковые
+ * запросы этих ресурсов объединяются {@link ReadCoalescer} по ETag и параметрам: выборку выполняет один из них.
  */
 @Tag(name = "Courses", description = "Manage courses")
 @RestController
@@ -24,51 +42,153 @@ public class CourseController {
 
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final CourseService courseService;
+    private final ExportService exportService;
+    private final CatalogVersions catalogVersions;
+    private final ReadCoalescer readCoalescer;
 
-    public CourseController(CourseRepository courseRepository, EnrollmentRepository enrollmentRepository) {
+    public CourseController(
+            CourseRepository courseRepository,
+            EnrollmentRepository enrollmentRepository,
+            CourseService courseService,
+            ExportService exportService,
+            CatalogVersions catalogVersions,
+            ReadCoalescer readCoalescer
+    ) {
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
+        this.courseService = courseService;
+        this.exportService = exportService;
+        this.catalogVersions = catalogVersions;
+        this.readCoalescer = readCoalescer;
     }
 
     /**
-     * Возвращает список курсов.
+     * Возвращает страницу курсов, упорядоченных по id.
+     *
+     * @param after курсор: id последнего курса предыдущей страницы (0 — с начала)
+     * @param limit размер страницы (не больше {@link CursorPageResponse#MAX_LIMIT})
+     * @return страница курсов и курсор следующей страницы; 304, если каталог не менялся
      */
     @GetMapping
-    public List<CourseResponse> getAll() {
-        return courseRepository.findAll().stream().map(CourseResponse::from).toList();
+    public ResponseEntity<CursorPageResponse<CourseResponse>> getAll(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit,
+            WebRequest request
+    ) {
+        String etag = catalogVersions.catalogueTag();
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        return ConditionalGet.respond(request, etag, () -> readCoalescer.execute(etag + after + ":" + pageSize, () -> {
+            List<Course> rows = courseRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize + 1));
+            return CursorPageResponse.of(rows, pageSize, Course::getId, CourseResponse::from);
+        }));
+    }
+
+    /**
+     * Полнотекстовый поиск курсов по названию и описанию (in-memory индекс, без запросов к БД).
+     *
+     * @param q     слова запроса; каждое совпадает со словом курса целиком или как префикс
+     * @param limit максимальное количество результатов (не больше {@link CourseSearchResponse#MAX_LIMIT})
+     * @return курсы, содержащие все слова запроса, по убыванию релевантности
+     */
+    @Operation(summary = "Search courses", description = "Full-text search over course titles and descriptions.")
+    @GetMapping("/search")
+    public CourseSearchResponse search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "" + CourseSearchResponse.DEFAULT_LIMIT) int limit
+    ) {
+        if (q.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query must not be blank");
+        }
+        return courseService.search(q, Math.max(1, Math.min(limit, CourseSearchResponse.MAX_LIMIT)));
+    }
+
+    /**
+     * Возвращает страницу статистики записей на курсы, упорядоченной по id курса.
+     * Отвечает из счётчиков занятых мест, без подсчёта записей.
+     *
+     * @param after курсор: id последнего курса предыдущей страницы (0 — с начала)
+     * @param limit размер страницы (не больше {@link CursorPageResponse#MAX_LIMIT})
+     * @return статистика курсов и курсор следующей страницы
+     */
+    @Operation(summary = "Enrollment stats of all courses", description = "Enrolled students and free seats per course.")
+    @GetMapping("/stats")
+    public CursorPageResponse<CourseStatsResponse> getAllStats(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit
+    ) {
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<CourseStatsResponse> rows = courseRepository.findStatsPage(after, Limit.of(pageSize + 1));
+        return CursorPageResponse.of(rows, pageSize, CourseStatsResponse::getCourseId, Function.identity());
+    }
+
+    /**
+     * Выгружает все курсы потоком в формате NDJSON (один объект на строку).
+     */
+    @Operation(summary = "Export all courses", description = "Streams all courses as newline-delimited JSON.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService.exportCourses());
     }
 
     /**
      * Возвращает курс по id.
      *
      * @param id идентификатор курса
-     * @return DTO курса
+     * @return DTO курса; 304, если курс не менялся
      * @throws EntityNotFoundException если курс не найден
      */
     @Operation(summary = "Return course by id", description = "Shows course info by its id.")
     @GetMapping("/{id}")
-    public CourseResponse getById(@PathVariable Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Course not found: " + id));
-        return CourseResponse.from(course);
+    public ResponseEntity<CourseResponse> getById(@PathVariable Long id, WebRequest request) {
+        String etag = catalogVersions.courseTag(id);
+        return ConditionalGet.respond(request, etag, () -> readCoalescer.execute(etag, () -> courseService.getById(id)));
     }
 
     /**
-     * Возвращает список студентов, записанных на курс.
+     * Возвращает статистику записей на курс.
+     *
+     * @param id идентификатор курса
+     * @return количество записанных студентов, вместимость и свободные места
+     * @throws EntityNotFoundException если курс не найден
+     */
+    @Operation(summary = "Enrollment stats of a course", description = "Enrolled students and free seats of a course.")
+    @GetMapping("/{id}/stats")
+    public CourseStatsResponse getStats(@PathVariable Long id) {
+        return courseService.getStats(id);
+    }
+
+    /**
+     * Возвращает страницу студентов, записанных на курс.
+     * <p>
+     * Проверка существования курса и выборка студентов выполняются одним запросом.
      *
      * @param courseId идентификатор курса
-     * @return список студентов
+     * @param after    курсор: id последнего студента предыдущей страницы (0 — с начала)
+     * @param limit    размер страницы (не больше {@link CursorPageResponse#MAX_LIMIT})
+     * @return страница студентов и курсор следующей страницы; 304, если ростер не менялся
+     * @throws EntityNotFoundException если курс не найден
      */
     @GetMapping("/{courseId}/students")
-    public List<UserResponse> getStudents(@PathVariable Long courseId) {
-        // Валидация существования курса — чтобы возвращать 404 вместо пустого списка при ошибочном id.
-        courseRepository.findById(courseId)
-                .orElseThrow(() -> new EntityNotFoundException("Course not found: " + courseId));
+    public ResponseEntity<CursorPageResponse<UserResponse>> getStudents(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit,
+            WebRequest request
+    ) {
+        String etag = catalogVersions.rosterTag(courseId);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        return ConditionalGet.respond(request, etag, () -> readCoalescer.execute(etag + after + ":" + pageSize, () -> {
+            List<UserResponse> rows = enrollmentRepository.findRosterPage(courseId, after, Limit.of(pageSize + 1));
 
-        List<Enrollment> enrollments = enrollmentRepository.findAllByCourseId(courseId);
-        return enrollments.stream()
-                .map(Enrollment::getStudent)
-                .map(UserResponse::from)
-                .toList();
+            // Пустой результат — курса нет; строка без id — курс есть, но студентов на этой странице нет.
+            if (rows.isEmpty()) {
+                throw new EntityNotFoundException("Course not found: " + courseId);
+            }
+            List<UserResponse> students = rows.get(0).getId() == null ? List.of() : rows;
+            return CursorPageResponse.of(students, pageSize, UserResponse::getId, Function.identity());
+        }));
     }
 }
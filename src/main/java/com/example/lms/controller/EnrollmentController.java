@@ -1,16 +1,27 @@
 package com.example.lms.controller;
 
+import com.example.lms.dto.EnrollmentBatchRequest;
+import com.example.lms.dto.EnrollmentBatchResponse;
 import com.example.lms.dto.EnrollmentRequest;
-import com.example.lms.entity.Enrollment;
+import com.example.lms.dto.EnrollmentResponse;
+import com.example.lms.service.EnrollmentAdmission;
 import com.example.lms.service.EnrollmentService;
+import com.example.lms.service.ExportService;
+import com.example.lms.service.IdempotencyStore;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 
 /**
  * REST API для управления записями студентов на курсы.
+ * Запись и отписка проходят допуск {@link EnrollmentAdmission}: частота запросов студента и общее число
+ * одновременных записей ограничены, лишние запросы сразу получают 429/503 с {@code Retry-After}.
+ * Повтор записи или отписки с тем же {@code Idempotency-Key} получает ответ первого запроса ({@link IdempotencyStore}).
  */
 @Tag(name = "Enrollments", description = "Manage student enrollments")
 @RestController
@@ -18,32 +29,90 @@ import io.swagger.v3.oas.annotations.Operation;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final ExportService exportService;
+    private final EnrollmentAdmission admission;
+    private final IdempotencyStore idempotency;
 
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    public EnrollmentController(
+            EnrollmentService enrollmentService,
+            ExportService exportService,
+            EnrollmentAdmission admission,
+            IdempotencyStore idempotency
+    ) {
         this.enrollmentService = enrollmentService;
+        this.exportService = exportService;
+        this.admission = admission;
+        this.idempotency = idempotency;
     }
 
     /**
      * Записывает студента на курс.
      *
-     * @param request запрос с идентификаторами студента и курса
-     * @return созданная запись Enrollment
+     * @param request        запрос с идентификаторами студента и курса
+     * @param idempotencyKey необязательный ключ повтора: повтор с ним получает ответ первого запроса
+     * @return DTO созданной записи
      */
     @Operation(summary = "Enroll student to course", description = "Creates an enrollment record.")
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Enrollment enroll(@Valid @RequestBody EnrollmentRequest request) {
-        return enrollmentService.enroll(request.getStudentId(), request.getCourseId());
+    public EnrollmentResponse enroll(
+            @Valid @RequestBody EnrollmentRequest request,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotency.execute("enroll", request.getStudentId(), idempotencyKey, fingerprint(request), () -> {
+            try (EnrollmentAdmission.Permit permit = admission.admit(request.getStudentId())) {
+                return enrollmentService.enroll(request.getStudentId(), request.getCourseId());
+            }
+        });
+    }
+
+    /**
+     * Пакетно записывает студентов на курсы.
+     *
+     * @param request список пар student+course (не больше {@link EnrollmentBatchRequest#MAX_ITEMS})
+     * @return итог по каждой паре: создана, дубль, не найден студент или курс
+     */
+    @Operation(summary = "Enroll students in bulk",
+            description = "Creates enrollments for many student-course pairs and reports the outcome per pair.")
+    @PostMapping("/batch")
+    public EnrollmentBatchResponse enrollBatch(@Valid @RequestBody EnrollmentBatchRequest request) {
+        try (EnrollmentAdmission.Permit permit = admission.admit()) {
+            return enrollmentService.enrollBatch(request.getItems());
+        }
     }
 
     /**
      * Отписывает студента от курса.
      *
-     * @param request запрос с идентификаторами студента и курса
+     * @param request        запрос с идентификаторами студента и курса
+     * @param idempotencyKey необязательный ключ повтора: повтор с ним получает ответ первого запроса
      */
     @DeleteMapping
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void unenroll(@Valid @RequestBody EnrollmentRequest request) {
-        enrollmentService.unenroll(request.getStudentId(), request.getCourseId());
+    public void unenroll(
+            @Valid @RequestBody EnrollmentRequest request,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey
+    ) {
+        idempotency.execute("unenroll", request.getStudentId(), idempotencyKey, fingerprint(request), () -> {
+            try (EnrollmentAdmission.Permit permit = admission.admit(request.getStudentId())) {
+                enrollmentService.unenroll(request.getStudentId(), request.getCourseId());
+                return null;
+            }
+        });
+    }
+
+    private static String fingerprint(EnrollmentRequest request) {
+        return request.getStudentId() + ":" + request.getCourseId();
+    }
+
+    /**
+     * Выгружает все записи на курсы потоком в формате NDJSON (один объект на строку).
+     */
+    @Operation(summary = "Export all enrollments", description = "Streams all enrollments as newline-delimited JSON.")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService.exportEnrollments());
     }
 }
@@ -1,12 +1,17 @@
 package com.example.lms.controller;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -40,6 +45,55 @@ public class RestExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
     }
 
+    /**
+     * Возвращает 409, если вставку отклонило ограничение уникальности в БД
+     * (например, параллельная запись той же пары student+course).
+     */
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<Map<String, Object>> handleDuplicateKey(DuplicateKeyException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "CONFLICT");
+        body.put("message", "Resource already exists.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    /**
+     * Возвращает 409, если изменение отклонило другое ограничение целостности БД
+     * (например, внешний ключ: студента или курс удалили во время запроса).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleIntegrityViolation(DataIntegrityViolationException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "CONFLICT");
+        body.put("message", "Request conflicts with a concurrent change, retry the request.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    /**
+     * Возвращает 503 с {@code Retry-After}, если транзакцию откатила взаимоблокировка или таймаут блокировки:
+     * повтор запроса обычно проходит.
+     */
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleLockFailure(PessimisticLockingFailureException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "SERVICE_UNAVAILABLE");
+        body.put("message", "Database is busy, retry later.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
+    /**
+     * Возвращает статус, указанный в исключении (например, 400 для некорректного параметра или 503,
+     * пока не готов in-memory индекс), в общем формате ошибок.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatus(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", status.name());
+        body.put("message", ex.getReason());
+        return ResponseEntity.status(status).headers(ex.getHeaders()).body(body);
+    }
+
     /**
      * Возвращает 400 при нарушении валидации входного DTO.
      */
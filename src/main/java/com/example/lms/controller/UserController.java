@@ -1,11 +1,21 @@
 package com.example.lms.controller;
 
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CursorPageResponse;
 import com.example.lms.dto.UserResponse;
 import com.example.lms.entity.User;
 import com.example.lms.repository.UserRepository;
+import com.example.lms.service.CourseService;
+import com.example.lms.service.EnrollmentService;
+import com.example.lms.service.ExportService;
+import com.example.lms.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,18 +29,52 @@ import java.util.List;
 public class UserController {
 
     private final UserRepository userRepository;
+    private final UserService userService;
+    private final ExportService exportService;
+    private final EnrollmentService enrollmentService;
+    private final CourseService courseService;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(
+            UserRepository userRepository,
+            UserService userService,
+            ExportService exportService,
+            EnrollmentService enrollmentService,
+            CourseService courseService
+    ) {
         this.userRepository = userRepository;
+        this.userService = userService;
+        this.exportService = exportService;
+        this.enrollmentService = enrollmentService;
+        this.courseService = courseService;
     }
 
     /**
-     * Возвращает список пользователей.
+     * Возвращает страницу пользователей, упорядоченных по id.
+     *
+     * @param after курсор: id последнего пользователя предыдущей страницы (0 — с начала)
+     * @param limit размер страницы (не больше {@link CursorPageResponse#MAX_LIMIT})
+     * @return страница пользователей и курсор следующей страницы
      */
     @GetMapping
-    public List<UserResponse> getAll() {
-        log.debug("HTTP GET /api/users invoked");
-        return userRepository.findAll().stream().map(UserResponse::from).toList();
+    public CursorPageResponse<UserResponse> getAll(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + CursorPageResponse.DEFAULT_LIMIT) int limit
+    ) {
+        log.debug("HTTP GET /api/users invoked: after={}, limit={}", after, limit);
+        int pageSize = CursorPageResponse.clampLimit(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(pageSize + 1));
+        return CursorPageResponse.of(rows, pageSize, User::getId, UserResponse::from);
+    }
+
+    /**
+     * Выгружает всех пользователей потоком в формате NDJSON (один объект на строку).
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export() {
+        log.debug("HTTP GET /api/users/export invoked");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService.exportUsers());
     }
 
     /**
@@ -43,8 +87,23 @@ public class UserController {
     @GetMapping("/{id}")
     public UserResponse getById(@PathVariable Long id) {
         log.debug("HTTP GET /api/users/{} invoked", id);
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + id));
-        return UserResponse.from(user);
+        return userService.getById(id);
+    }
+
+    /**
+     * Возвращает курсы, на которые записан пользователь.
+     * Id курсов берутся из индекса записей (или одним запросом), сами курсы — из кэша {@link CourseService}.
+     *
+     * @param id идентификатор пользователя
+     * @return курсы пользователя, упорядоченные по id
+     * @throws EntityNotFoundException если пользователь не найден
+     */
+    @GetMapping("/{id}/courses")
+    public List<CourseResponse> getCourses(@PathVariable Long id) {
+        log.debug("HTTP GET /api/users/{}/courses invoked", id);
+        userService.getById(id);
+        return enrollmentService.getCourseIdsOfStudent(id).stream()
+                .map(courseService::getById)
+                .toList();
     }
 }
@@ -11,17 +11,24 @@ public class CourseResponse {
     private String title;
     private String description;
     private Long teacherId;
+    private Integer capacity;
 
     public CourseResponse() {
     }
 
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...}).
+     */
+    public CourseResponse(Long id, String title, String description, Integer capacity) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.capacity = capacity;
+    }
+
     public static CourseResponse from(Course course) {
-        CourseResponse dto = new CourseResponse();
-        dto.id = course.getId();
-        dto.title = course.getTitle();
-        dto.description = course.getDescription();
-//        dto.teacherId = course.getTeacher() != null ? course.getTeacher().getId() : null;
-        return dto;
+        // teacherId не заполняется: связь курса с преподавателем в модели пока отключена
+        return new CourseResponse(course.getId(), course.getTitle(), course.getDescription(), course.getCapacity());
     }
 
     public Long getId() {
@@ -39,4 +46,8 @@ public class CourseResponse {
     public Long getTeacherId() {
         return teacherId;
     }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
 }
@@ -0,0 +1,85 @@
+package com.example.lms.dto;
+
+import java.util.List;
+
+/**
+ * Результат полнотекстового поиска курсов: лучшие совпадения по убыванию релевантности
+ * и общее количество курсов, подходящих под запрос.
+ * <p>
+ * {@code truncated} — у слова запроса слишком много продолжений-префиксов, в поиск взяты только самые частые:
+ * {@code total} может быть меньше настоящего, запрос стоит уточнить.
+ */
+public class CourseSearchResponse {
+
+    /**
+     * Количество результатов по умолчанию.
+     */
+    public static final int DEFAULT_LIMIT = 20;
+
+    /**
+     * Верхняя граница количества результатов.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    private String query;
+    private int total;
+    private List<Hit> items;
+    private boolean truncated;
+
+    public CourseSearchResponse() {
+    }
+
+    public CourseSearchResponse(String query, int total, List<Hit> items, boolean truncated) {
+        this.query = query;
+        this.total = total;
+        this.items = items;
+        this.truncated = truncated;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<Hit> getItems() {
+        return items;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Найденный курс. Полная карточка — {@code GET /api/courses/{id}}.
+     */
+    public static class Hit {
+
+        private Long id;
+        private String title;
+        private float score;
+
+        public Hit() {
+        }
+
+        public Hit(Long id, String title, float score) {
+            this.id = id;
+            this.title = title;
+            this.score = score;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public float getScore() {
+            return score;
+        }
+    }
+}
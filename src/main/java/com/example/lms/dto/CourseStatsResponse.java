@@ -0,0 +1,42 @@
+package com.example.lms.dto;
+
+/**
+ * DTO статистики записей на курс: счётчик занятых мест, вместимость и остаток мест.
+ */
+public class CourseStatsResponse {
+
+    private Long courseId;
+    private int enrolled;
+    private Integer capacity;
+
+    public CourseStatsResponse() {
+    }
+
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...}).
+     */
+    public CourseStatsResponse(Long courseId, int enrolled, Integer capacity) {
+        this.courseId = courseId;
+        this.enrolled = enrolled;
+        this.capacity = capacity;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public int getEnrolled() {
+        return enrolled;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return количество свободных мест; {@code null}, если вместимость курса не ограничена
+     */
+    public Integer getAvailable() {
+        return capacity == null ? null : Math.max(0, capacity - enrolled);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.lms.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница результатов при курсорной (keyset) пагинации.
+ * <p>
+ * Клиент передаёт {@code after=<nextCursor>} из предыдущего ответа, чтобы получить следующую страницу.
+ * Если {@code nextCursor == null}, данных больше нет.
+ *
+ * @param <T> тип элемента страницы
+ */
+public class CursorPageResponse<T> {
+
+    /**
+     * Размер страницы по умолчанию.
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /**
+     * Верхняя граница размера страницы, чтобы один запрос не выгружал всю таблицу.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public CursorPageResponse() {
+    }
+
+    public CursorPageResponse(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Собирает страницу из строк, выбранных с запасом в одну запись ({@code limit + 1}).
+     * Лишняя запись не попадает в ответ и служит признаком наличия следующей страницы.
+     *
+     * @param rows   строки, упорядоченные по id
+     * @param limit  запрошенный размер страницы
+     * @param idOf   функция получения id строки
+     * @param mapper преобразование строки в DTO
+     */
+    public static <E, T> CursorPageResponse<T> of(List<E> rows, int limit,
+                                                   Function<E, Long> idOf, Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> page = hasMore ? rows.subList(0, limit) : rows;
+        Long nextCursor = hasMore ? idOf.apply(page.get(page.size() - 1)) : null;
+        // Список нужного размера без stream-конвейера: страницы отображаются на каждом запросе списков
+        List<T> items = new ArrayList<>(page.size());
+        for (E row : page) {
+            items.add(mapper.apply(row));
+        }
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    /**
+     * Приводит запрошенный размер страницы к допустимому диапазону [1, {@link #MAX_LIMIT}].
+     */
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.lms.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Запрос на пакетную запись студентов на курсы.
+ */
+public class EnrollmentBatchRequest {
+
+    /**
+     * Максимальное количество пар student+course в одном запросе.
+     */
+    public static final int MAX_ITEMS = 50_000;
+
+    @NotEmpty
+    @Size(max = MAX_ITEMS)
+    private List<@Valid @NotNull EnrollmentRequest> items;
+
+    public EnrollmentBatchRequest() {
+    }
+
+    public List<EnrollmentRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<EnrollmentRequest> items) {
+        this.items = items;
+    }
+}
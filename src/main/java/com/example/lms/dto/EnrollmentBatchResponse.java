@@ -0,0 +1,89 @@
+package com.example.lms.dto;
+
+import java.util.List;
+
+/**
+ * Результат пакетной записи на курсы: итог по каждой паре в порядке запроса и сводные счётчики.
+ */
+public class EnrollmentBatchResponse {
+
+    /**
+     * Итог обработки одной пары student+course.
+     */
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        COURSE_FULL
+    }
+
+    private List<Item> results;
+    private int created;
+    private int duplicates;
+    private int notFound;
+    private int courseFull;
+
+    public EnrollmentBatchResponse() {
+    }
+
+    public EnrollmentBatchResponse(List<Item> results) {
+        this.results = results;
+        for (Item item : results) {
+            switch (item.status) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case COURSE_FULL -> courseFull++;
+                default -> notFound++;
+            }
+        }
+    }
+
+    public List<Item> getResults() {
+        return results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public int getCourseFull() {
+        return courseFull;
+    }
+
+    public static class Item {
+
+        private Long studentId;
+        private Long courseId;
+        private Status status;
+
+        public Item() {
+        }
+
+        public Item(Long studentId, Long courseId, Status status) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+            this.status = status;
+        }
+
+        public Long getStudentId() {
+            return studentId;
+        }
+
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.lms.dto;
+
+import com.example.lms.entity.enums.EnrollmentEventType;
+
+import java.time.Instant;
+
+/**
+ * Событие о записи на курс в том виде, в каком оно доставляется потребителям.
+ * <p>
+ * Доставка «хотя бы один раз»: после сбоя событие может прийти повторно, поэтому потребитель
+ * отбрасывает дубли по {@code id}. Для одного курса события приходят в порядке возрастания {@code id}.
+ */
+public class EnrollmentEvent {
+
+    private long id;
+    private EnrollmentEventType type;
+    private long studentId;
+    private long courseId;
+    private Instant occurredAt;
+
+    public EnrollmentEvent() {
+    }
+
+    public EnrollmentEvent(long id, EnrollmentEventType type, long studentId, long courseId, Instant occurredAt) {
+        this.id = id;
+        this.type = type;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.occurredAt = occurredAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public EnrollmentEventType getType() {
+        return type;
+    }
+
+    public long getStudentId() {
+        return studentId;
+    }
+
+    public long getCourseId() {
+        return courseId;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+}
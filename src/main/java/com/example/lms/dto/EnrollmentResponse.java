@@ -14,12 +14,22 @@ public class EnrollmentResponse {
     public EnrollmentResponse() {
     }
 
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...}).
+     */
+    public EnrollmentResponse(Long id, Long studentId, Long courseId) {
+        this.id = id;
+        this.studentId = studentId;
+        this.courseId = courseId;
+    }
+
+    /**
+     * Берёт только id связанных сущностей: у ленивых прокси Hibernate это не вызывает загрузку.
+     */
     public static EnrollmentResponse from(Enrollment e) {
-        EnrollmentResponse dto = new EnrollmentResponse();
-        dto.id = e.getId();
-        dto.studentId = e.getStudent() != null ? e.getStudent().getId() : null;
-        dto.courseId = e.getCourse() != null ? e.getCourse().getId() : null;
-        return dto;
+        return new EnrollmentResponse(e.getId(),
+                e.getStudent() != null ? e.getStudent().getId() : null,
+                e.getCourse() != null ? e.getCourse().getId() : null);
     }
 
     public Long getId() {
@@ -1,6 +1,8 @@
 package com.example.lms.dto;
 
 import com.example.lms.entity.User;
+import com.example.lms.entity.enums.UserRole;
+import com.example.lms.entity.enums.UserStatus;
 
 /**
  * DTO ответа для пользователя.
@@ -18,31 +20,27 @@ public class UserResponse {
     public UserResponse() {
     }
 
-    public static UserResponse from(User user) {
-        UserResponse dto = new UserResponse();
-        dto.id = user.getId();
-        dto.firstName = user.getFirstName();
-        dto.lastName = user.getLastName();
-        dto.email = user.getEmail();
-        dto.status = user.getStatus() != null ? user.getStatus().name() : null;
-
-        // role может отсутствовать в текущей модели; если поля нет, эту строку удалишь.
-        dto.role = safeRole(user);
-
-        return dto;
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...}): DTO собирается прямо из строки результата,
+     * без загрузки сущности в контекст персистентности.
+     */
+    public UserResponse(Long id, String firstName, String lastName, String email,
+                        UserStatus status, UserRole role) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+        this.status = status != null ? status.name() : null;
+        this.role = role != null ? role.name() : null;
     }
 
     /**
-     * Изолирует доступ к роли, чтобы DTO не ломался, если поле Role ещё не заведено.
-     * При добавлении Role в сущность User метод можно упростить до user.getRole().name().
+     * Отображает сущность в DTO прямыми вызовами геттеров: без рефлексии и промежуточных объектов
+     * ({@link Enum#name()} возвращает константную строку).
      */
-    private static String safeRole(User user) {
-        try {
-            Object role = user.getClass().getMethod("getRole").invoke(user);
-            return role != null ? role.toString() : null;
-        } catch (Exception ignored) {
-            return null;
-        }
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getStatus(), user.getRole());
     }
 
     public Long getId() {
@@ -12,6 +12,8 @@ import java.time.LocalDate;
  * характеристики и связь с преподавателем.
  */
 @Entity
+@AttributeOverride(name = "id",
+        column = @Column(name = "id", columnDefinition = "bigint default nextval('courses_seq')"))
 @Table(name = "courses")
 public class Course extends AbstractEntity {
 
@@ -41,6 +43,22 @@ public class Course extends AbstractEntity {
     @Column(name = "start_date")
     private LocalDate startDate;
 
+    /**
+     * Максимальное количество студентов; {@code null} — без ограничения.
+     */
+    @Column(name = "capacity")
+    private Integer capacity;
+
+    /**
+     * Количество занятых мест.
+     * <p>
+     * Меняется только условными UPDATE из {@link com.example.lms.repository.CourseRepositoryCustom},
+     * поэтому исключено из INSERT/UPDATE сущности: сохранение курса не перезапишет счётчик устаревшим значением.
+     */
+    @Column(name = "enrolled_count", insertable = false, updatable = false,
+            columnDefinition = "integer default 0 not null")
+    private int enrolledCount;
+
     public Course() {
     }
 
@@ -73,4 +91,16 @@ public class Course extends AbstractEntity {
     public void setStartDate(LocalDate startDate) {
         this.startDate = startDate;
     }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getEnrolledCount() {
+        return enrolledCount;
+    }
 }
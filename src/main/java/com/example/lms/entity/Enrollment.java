@@ -1,5 +1,7 @@
 package com.example.lms.entity;
 
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
@@ -20,6 +22,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@AttributeOverride(name = "id",
+        column = @Column(name = "id", columnDefinition = "bigint default nextval('enrollments_seq')"))
 @Table(
         name = "enrollments",
         uniqueConstraints = @UniqueConstraint(
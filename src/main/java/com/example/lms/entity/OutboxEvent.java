@@ -0,0 +1,45 @@
+package com.example.lms.entity;
+
+import com.example.lms.entity.enums.EnrollmentEventType;
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Событие о записи на курс, ожидающее публикации (transactional outbox).
+ * <p>
+ * Строка вставляется в той же транзакции, что и сама запись/отписка, и удаляется после доставки
+ * в {@link com.example.lms.service.EnrollmentEventSink}. Внешних ключей нет: событие об удалённом курсе
+ * или студенте всё равно должно быть доставлено. Вставка и выборка идут через JDBC
+ * ({@link com.example.lms.repository.OutboxEventRepositoryCustom}), сущность описывает схему таблицы.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@AttributeOverride(name = "id",
+        column = @Column(name = "id", columnDefinition = "bigint default nextval('enrollment_outbox_seq')"))
+@Table(name = "enrollment_outbox")
+public class OutboxEvent extends AbstractEntity {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private EnrollmentEventType type;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
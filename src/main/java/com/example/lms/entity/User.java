@@ -2,6 +2,7 @@ package com.example.lms.entity;
 
 import com.example.lms.entity.enums.UserStatus;
 import com.example.lms.entity.enums.UserRole;
+import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -20,6 +21,8 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
+@AttributeOverride(name = "id",
+        column = @Column(name = "id", columnDefinition = "bigint default nextval('users_seq')"))
 @Table(name = "users",
         uniqueConstraints = {
                 @UniqueConstraint(name = "uc_user_email", columnNames = "email")
@@ -49,14 +52,14 @@ public class User extends AbstractEntity {
      * Роль пользователя в системе.
      */
     @Enumerated(EnumType.STRING)
-    @Column(name = "role", nullable = false, length = 20)
+    @Column(name = "role", nullable = false, length = 32)
     private UserRole role;
 
     /**
      * Статус пользователя в системе.
      */
     @Enumerated(EnumType.STRING)
-    @Column(name = "status", nullable = false, length = 20)
+    @Column(name = "status", nullable = false, length = 32)
     private UserStatus status;
 
 }
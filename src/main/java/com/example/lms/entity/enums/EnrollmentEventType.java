@@ -0,0 +1,17 @@
+package com.example.lms.entity.enums;
+
+/**
+ * Тип события о записи на курс, публикуемого через outbox.
+ */
+public enum EnrollmentEventType {
+
+    /**
+     * Студент записан на курс.
+     */
+    ENROLLED,
+
+    /**
+     * Студент отписан от курса.
+     */
+    UNENROLLED
+}
@@ -1,10 +1,21 @@
 package com.example.lms.repository;
 
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CourseStatsResponse;
 import com.example.lms.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для управления сущностями {@link Course}.
@@ -12,7 +23,7 @@ import java.util.Optional;
  * Предоставляет базовые операции CRUD, а также методы поиска
  * по коду курса и по преподавателю.
  */
-public interface CourseRepository extends JpaRepository<Course, Long> {
+public interface CourseRepository extends JpaRepository<Course, Long>, CourseRepositoryCustom {
 
     /**
      * Находит курс по его уникальному коду.
@@ -29,4 +40,57 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
      * @return список курсов, связанных с данным преподавателем
      */
 //    List<Course> findByTeacherId(Long teacherId);
+
+    /**
+     * Возвращает курсы с id больше заданного в порядке возрастания id (keyset-пагинация).
+     *
+     * @param id    курсор: id последнего курса предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return курсы, упорядоченные по id
+     */
+    @Transactional(readOnly = true)
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Потоково читает все курсы в виде DTO-проекции для выгрузки.
+     * Поток нужно читать внутри транзакции и закрывать после использования.
+     *
+     * @return поток курсов, упорядоченных по id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.lms.dto.CourseResponse(c.id, c.title, c.description, c.capacity) " +
+            "from Course c order by c.id")
+    Stream<CourseResponse> streamAllForExport();
+
+    /**
+     * Возвращает те id из переданных, для которых существуют курсы.
+     *
+     * @param ids проверяемые идентификаторы
+     * @return существующие идентификаторы
+     */
+    @Query("select c.id from Course c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Возвращает статистику курса из счётчика {@code enrolled_count} (без обращения к {@code enrollments}).
+     *
+     * @param id идентификатор курса
+     * @return статистика курса или пустой результат, если курса нет
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.example.lms.dto.CourseStatsResponse(c.id, c.enrolledCount, c.capacity) " +
+            "from Course c where c.id = :id")
+    Optional<CourseStatsResponse> findStatsById(@Param("id") Long id);
+
+    /**
+     * Возвращает статистику курсов с id больше заданного в порядке возрастания id (keyset-пагинация).
+     *
+     * @param id    курсор: id последнего курса предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return статистика курсов, упорядоченная по id
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.example.lms.dto.CourseStatsResponse(c.id, c.enrolledCount, c.capacity) " +
+            "from Course c where c.id > :id order by c.id")
+    List<CourseStatsResponse> findStatsPage(@Param("id") long id, Limit limit);
 }
@@ -0,0 +1,76 @@
+package com.example.lms.repository;
+
+import java.util.List;
+
+/**
+ * Учёт занятых мест на курсах условными UPDATE через JDBC, в обход контекста персистентности.
+ * <p>
+ * Проверка «есть ли свободное место» и увеличение счётчика выполняются одним выражением,
+ * поэтому конкурирующие запросы не могут превысить {@code capacity}: строка курса блокируется
+ * только на время от UPDATE до конца транзакции, остальные курсы не затрагиваются.
+ */
+public interface CourseRepositoryCustom {
+
+    /**
+     * Занимает одно место на курсе, если оно есть.
+     *
+     * @param courseId идентификатор курса
+     * @return {@code true}, если место занято; {@code false}, если курс заполнен или не найден
+     */
+    boolean tryTakeSeat(long courseId);
+
+    /**
+     * Пакетный вариант {@link #tryTakeSeat}: по одному месту на каждый элемент, одним JDBC-батчем.
+     * Чтобы параллельные батчи не взаимоблокировались, id курсов должны быть упорядочены по возрастанию.
+     *
+     * @param courseIds идентификаторы курсов (с повторами — по одному месту на повтор)
+     * @return для каждого элемента: 1 — место занято, 0 — курс заполнен
+     */
+    int[] tryTakeSeats(long[] courseIds);
+
+    /**
+     * Освобождает одно место на курсе (счётчик не опускается ниже нуля).
+     *
+     * @param courseId идентификатор курса
+     */
+    void releaseSeat(long courseId);
+
+    /**
+     * Пересчитывает счётчики занятых мест по таблице {@code enrollments}
+     * (после загрузки записей в обход сервиса).
+     *
+     * @return количество обновлённых курсов
+     */
+    int recountSeats();
+
+    /**
+     * Сверяет счётчики занятых мест порции курсов с таблицей {@code enrollments}: одна выборка курсов
+     * и один агрегирующий запрос по диапазону их id. Без блокировок, поэтому при конкурентных записях
+     * возможны ложные расхождения — их перепроверяет {@link #reconcileSeats}.
+     *
+     * @param afterId курсор: id последнего курса предыдущей порции
+     * @param limit   количество курсов в порции
+     * @return счётчики курсов порции в порядке id (пусто — курсы закончились)
+     */
+    List<SeatCount> findSeatCounts(long afterId, int limit);
+
+    /**
+     * Исправляет счётчик курса по фактическому количеству записей. Выполняется в транзакции вызывающего:
+     * строка курса блокируется до подсчёта, поэтому конкурентные записи и отписки, которые меняют
+     * счётчик под той же блокировкой, не теряются.
+     *
+     * @param courseId идентификатор курса
+     * @return на сколько изменился счётчик (0 — расхождения нет или курс удалён)
+     */
+    int reconcileSeats(long courseId);
+
+    /**
+     * Счётчик занятых мест курса и фактическое количество записей на момент сверки.
+     */
+    record SeatCount(long courseId, int enrolledCount, int actualCount) {
+
+        public boolean isDrifted() {
+            return enrolledCount != actualCount;
+        }
+    }
+}
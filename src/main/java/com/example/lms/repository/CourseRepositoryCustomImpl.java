@@ -0,0 +1,109 @@
+package com.example.lms.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC-реализация {@link CourseRepositoryCustom}.
+ * Подключается Spring Data к {@link CourseRepository} автоматически по имени класса.
+ */
+public class CourseRepositoryCustomImpl implements CourseRepositoryCustom {
+
+    private static final String TAKE_SEAT_SQL =
+            "update courses set enrolled_count = enrolled_count + 1 " +
+                    "where id = ? and (capacity is null or enrolled_count < capacity)";
+
+    private static final String RELEASE_SEAT_SQL =
+            "update courses set enrolled_count = enrolled_count - 1 where id = ? and enrolled_count > 0";
+
+    private static final String RECOUNT_SQL =
+            "update courses c set enrolled_count = (select count(*) from enrollments e where e.course_id = c.id)";
+
+    private static final String SEAT_COUNTS_SQL =
+            "select id, enrolled_count from courses where id > ? order by id limit ?";
+
+    private static final String ENROLLMENT_COUNTS_SQL =
+            "select course_id, count(*) from enrollments where course_id between ? and ? group by course_id";
+
+    private static final String LOCK_COURSE_SQL = "select enrolled_count from courses where id = ? for update";
+
+    private static final String COUNT_ENROLLMENTS_SQL = "select count(*) from enrollments where course_id = ?";
+
+    private static final String SET_SEATS_SQL = "update courses set enrolled_count = ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean tryTakeSeat(long courseId) {
+        return jdbcTemplate.update(TAKE_SEAT_SQL, courseId) == 1;
+    }
+
+    @Override
+    public int[] tryTakeSeats(long[] courseIds) {
+        return jdbcTemplate.batchUpdate(TAKE_SEAT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, courseIds[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return courseIds.length;
+            }
+        });
+    }
+
+    @Override
+    public void releaseSeat(long courseId) {
+        jdbcTemplate.update(RELEASE_SEAT_SQL, courseId);
+    }
+
+    @Override
+    public int recountSeats() {
+        return jdbcTemplate.update(RECOUNT_SQL);
+    }
+
+    @Override
+    public List<SeatCount> findSeatCounts(long afterId, int limit) {
+        List<long[]> courses = jdbcTemplate.query(SEAT_COUNTS_SQL,
+                (rs, i) -> new long[]{rs.getLong(1), rs.getInt(2)}, afterId, limit);
+        if (courses.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> actual = new HashMap<>();
+        jdbcTemplate.query(ENROLLMENT_COUNTS_SQL, rs -> {
+            actual.put(rs.getLong(1), rs.getInt(2));
+        }, courses.get(0)[0], courses.get(courses.size() - 1)[0]);
+
+        List<SeatCount> result = new ArrayList<>(courses.size());
+        for (long[] course : courses) {
+            result.add(new SeatCount(course[0], (int) course[1], actual.getOrDefault(course[0], 0)));
+        }
+        return result;
+    }
+
+    @Override
+    public int reconcileSeats(long courseId) {
+        List<Integer> stored = jdbcTemplate.queryForList(LOCK_COURSE_SQL, Integer.class, courseId);
+        if (stored.isEmpty()) {
+            return 0;
+        }
+        Integer actual = jdbcTemplate.queryForObject(COUNT_ENROLLMENTS_SQL, Integer.class, courseId);
+        int delta = actual - stored.get(0);
+        if (delta != 0) {
+            jdbcTemplate.update(SET_SEATS_SQL, actual, courseId);
+        }
+        return delta;
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.lms.repository;
 
+import com.example.lms.dto.EnrollmentResponse;
 import com.example.lms.entity.Enrollment;
+import com.example.lms.dto.UserResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с записями студентов на курсы ({@link Enrollment}).
@@ -17,7 +28,7 @@ import java.util.UUID;
  *   <li>получение всех записей по курсу / по студенту.</li>
  * </ul>
  */
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentRepositoryCustom {
 
     /**
      * Проверяет, существует ли запись студента на курс.
@@ -37,6 +48,17 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      */
     Optional<Enrollment> findByStudentIdAndCourseId(Long studentId, Long courseId);
 
+    /**
+     * Удаляет запись студента на курс одним DELETE, без предварительной загрузки сущности.
+     *
+     * @param studentId идентификатор студента (User)
+     * @param courseId  идентификатор курса (Course)
+     * @return количество удалённых строк (0 или 1)
+     */
+    @Modifying
+    @Query("delete from Enrollment e where e.student.id = :studentId and e.course.id = :courseId")
+    int deleteByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
     /**
      * Возвращает все записи на указанный курс.
      *
@@ -52,4 +74,59 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
      * @return список записей студента (может быть пустым)
      */
     List<Enrollment> findAllByStudentId(Long studentId);
+
+    /**
+     * Считает студентов, записанных на курс.
+     *
+     * @param courseId идентификатор курса
+     * @return количество записей на курс
+     */
+    long countByCourseId(Long courseId);
+
+    /**
+     * Возвращает идентификаторы курсов студента без загрузки сущностей.
+     *
+     * @param studentId идентификатор студента
+     * @return id курсов в порядке возрастания
+     */
+    @Transactional(readOnly = true)
+    @Query("select e.course.id from Enrollment e where e.student.id = :studentId order by e.course.id")
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * Потоково читает все записи на курсы в виде DTO-проекции для выгрузки.
+     * Идентификаторы студента и курса берутся из внешних ключей, без join к users/courses.
+     * Поток нужно читать внутри транзакции и закрывать после использования.
+     *
+     * @return поток записей, упорядоченных по id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.lms.dto.EnrollmentResponse(e.id, e.student.id, e.course.id) " +
+            "from Enrollment e order by e.id")
+    Stream<EnrollmentResponse> streamAllForExport();
+
+    /**
+     * Возвращает страницу студентов курса одним запросом: courses -> enrollments -> users.
+     * <p>
+     * Курс выбирается через left join, поэтому по результату можно отличить отсутствующий курс
+     * от курса без студентов, не делая отдельного запроса:
+     * <ul>
+     *   <li>пустой список — курса с таким id нет,</li>
+     *   <li>одна строка с {@code id == null} — курс есть, но студентов после курсора нет,</li>
+     *   <li>иначе — студенты курса, упорядоченные по id.</li>
+     * </ul>
+     *
+     * @param courseId идентификатор курса
+     * @param after    курсор: id последнего студента предыдущей страницы
+     * @param limit    максимальное количество строк
+     * @return строки ростера в виде DTO-проекции
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.example.lms.dto.UserResponse(u.id, u.firstName, u.lastName, u.email, u.status, u.role) " +
+            "from Course c " +
+            "left join Enrollment e on e.course = c and e.student.id > :after " +
+            "left join e.student u " +
+            "where c.id = :courseId " +
+            "order by u.id")
+    List<UserResponse> findRosterPage(@Param("courseId") Long courseId, @Param("after") Long after, Limit limit);
 }
@@ -0,0 +1,43 @@
+package com.example.lms.repository;
+
+import java.util.Optional;
+
+/**
+ * Дополнительные операции над записями на курсы, которые выполняются напрямую через JDBC,
+ * в обход контекста персистентности.
+ */
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Атомарно создаёт запись студента на курс одним SQL-выражением.
+     * <p>
+     * Запись вставляется только если студент и курс существуют, а пары student+course ещё нет
+     * ({@code INSERT ... SELECT ... ON CONFLICT DO NOTHING}). Гонку двух одновременных запросов
+     * разрешает уникальный индекс {@code uk_enrollment_student_course}, а не предварительная проверка.
+     *
+     * @param studentId идентификатор студента
+     * @param courseId  идентификатор курса
+     * @return id созданной записи; {@link Optional#empty()}, если запись уже есть
+     *         или студент/курс не найдены
+     */
+    Optional<Long> insertIfAbsent(Long studentId, Long courseId);
+
+    /**
+     * Пакетный вариант {@link #insertIfAbsent}: все пары отправляются одним JDBC-батчем
+     * в рамках текущей транзакции.
+     *
+     * @param studentIds идентификаторы студентов
+     * @param courseIds  идентификаторы курсов (той же длины, что и {@code studentIds})
+     * @return для каждой пары количество вставленных строк: 1 — запись создана, 0 — нет
+     */
+    int[] insertIfAbsentBatch(long[] studentIds, long[] courseIds);
+
+    /**
+     * Удаляет записи по парам student+course одним JDBC-батчем в рамках текущей транзакции.
+     *
+     * @param studentIds идентификаторы студентов
+     * @param courseIds  идентификаторы курсов (той же длины, что и {@code studentIds})
+     * @return для каждой пары количество удалённых строк
+     */
+    int[] deleteBatch(long[] studentIds, long[] courseIds);
+}
@@ -0,0 +1,74 @@
+package com.example.lms.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * JDBC-реализация {@link EnrollmentRepositoryCustom}.
+ * Подключается Spring Data к {@link EnrollmentRepository} автоматически по имени класса.
+ */
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "insert into enrollments (student_id, course_id) " +
+                    "select u.id, c.id from users u, courses c where u.id = ? and c.id = ? " +
+                    "on conflict do nothing";
+
+    private static final String DELETE_SQL = "delete from enrollments where student_id = ? and course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EnrollmentRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Long> insertIfAbsent(Long studentId, Long courseId) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int inserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_IF_ABSENT_SQL, new String[]{"id"});
+            ps.setLong(1, studentId);
+            ps.setLong(2, courseId);
+            return ps;
+        }, keyHolder);
+
+        if (inserted == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(keyHolder.getKeyAs(Number.class).longValue());
+    }
+
+    @Override
+    public int[] insertIfAbsentBatch(long[] studentIds, long[] courseIds) {
+        return pairBatch(INSERT_IF_ABSENT_SQL, studentIds, courseIds);
+    }
+
+    @Override
+    public int[] deleteBatch(long[] studentIds, long[] courseIds) {
+        return pairBatch(DELETE_SQL, studentIds, courseIds);
+    }
+
+    private int[] pairBatch(String sql, long[] studentIds, long[] courseIds) {
+        if (studentIds.length != courseIds.length) {
+            throw new IllegalArgumentException("studentIds and courseIds must have the same length");
+        }
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, studentIds[i]);
+                ps.setLong(2, courseIds[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return studentIds.length;
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.lms.repository;
+
+import com.example.lms.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Репозиторий outbox-таблицы событий о записях на курсы ({@link OutboxEvent}).
+ * Рабочие операции — вставка в транзакции записи и выборка порций публикатором — в {@link OutboxEventRepositoryCustom}.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, OutboxEventRepositoryCustom {
+}
@@ -0,0 +1,50 @@
+package com.example.lms.repository;
+
+import com.example.lms.dto.EnrollmentEvent;
+import com.example.lms.entity.enums.EnrollmentEventType;
+
+import java.util.List;
+
+/**
+ * JDBC-операции над outbox-таблицей событий о записях на курсы.
+ */
+public interface OutboxEventRepositoryCustom {
+
+    /**
+     * Добавляет событие в рамках текущей транзакции.
+     * <p>
+     * Вызывается после обновления счётчика мест курса, пока строка курса заблокирована: поэтому id событий
+     * одного курса (значения последовательности) возрастают в порядке фиксации транзакций.
+     *
+     * @param type      тип события
+     * @param studentId идентификатор студента
+     * @param courseId  идентификатор курса
+     */
+    void append(EnrollmentEventType type, long studentId, long courseId);
+
+    /**
+     * Пакетный вариант {@link #append}: все события отправляются одним JDBC-батчем в рамках текущей транзакции.
+     *
+     * @param type       тип событий
+     * @param studentIds идентификаторы студентов
+     * @param courseIds  идентификаторы курсов (той же длины, что и {@code studentIds})
+     */
+    void appendBatch(EnrollmentEventType type, long[] studentIds, long[] courseIds);
+
+    /**
+     * Выбирает и блокирует до конца транзакции самые старые события ({@code SELECT ... FOR UPDATE}).
+     * Параллельный публикатор ждёт этих строк, поэтому события одного курса не публикуются двумя
+     * экземплярами одновременно и не обгоняют друг друга.
+     *
+     * @param limit максимальное количество событий
+     * @return события в порядке возрастания id
+     */
+    List<EnrollmentEvent> lockOldest(int limit);
+
+    /**
+     * Удаляет опубликованные события по id одним JDBC-батчем.
+     *
+     * @param ids идентификаторы событий
+     */
+    void deleteByIds(long[] ids);
+}
@@ -0,0 +1,87 @@
+package com.example.lms.repository;
+
+import com.example.lms.dto.EnrollmentEvent;
+import com.example.lms.entity.enums.EnrollmentEventType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * JDBC-реализация {@link OutboxEventRepositoryCustom}.
+ * Подключается Spring Data к {@link OutboxEventRepository} автоматически по имени класса.
+ */
+public class OutboxEventRepositoryCustomImpl implements OutboxEventRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "insert into enrollment_outbox (event_type, student_id, course_id, created_at) values (?, ?, ?, ?)";
+
+    private static final String LOCK_OLDEST_SQL =
+            "select id, event_type, student_id, course_id, created_at from enrollment_outbox " +
+                    "order by id limit ? for update";
+
+    private static final String DELETE_SQL = "delete from enrollment_outbox where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxEventRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(EnrollmentEventType type, long studentId, long courseId) {
+        jdbcTemplate.update(INSERT_SQL, type.name(), studentId, courseId, Timestamp.from(Instant.now()));
+    }
+
+    @Override
+    public void appendBatch(EnrollmentEventType type, long[] studentIds, long[] courseIds) {
+        if (studentIds.length != courseIds.length) {
+            throw new IllegalArgumentException("studentIds and courseIds must have the same length");
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, type.name());
+                ps.setLong(2, studentIds[i]);
+                ps.setLong(3, courseIds[i]);
+                ps.setTimestamp(4, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return studentIds.length;
+            }
+        });
+    }
+
+    @Override
+    public List<EnrollmentEvent> lockOldest(int limit) {
+        return jdbcTemplate.query(LOCK_OLDEST_SQL, (rs, rowNum) -> new EnrollmentEvent(
+                rs.getLong(1),
+                EnrollmentEventType.valueOf(rs.getString(2)),
+                rs.getLong(3),
+                rs.getLong(4),
+                rs.getTimestamp(5).toInstant()
+        ), limit);
+    }
+
+    @Override
+    public void deleteByIds(long[] ids) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.length;
+            }
+        });
+    }
+}
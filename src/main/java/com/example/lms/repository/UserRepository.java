@@ -1,9 +1,20 @@
 package com.example.lms.repository;
 
+import com.example.lms.dto.UserResponse;
 import com.example.lms.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для доступа к данным сущности {@link User}.
@@ -18,4 +29,38 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return необязательное значение с найденным пользователем
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Возвращает пользователей с id больше заданного в порядке возрастания id (keyset-пагинация).
+     * Запрос выполняет поиск по индексу первичного ключа, поэтому его стоимость не зависит от глубины страницы.
+     *
+     * @param id    курсор: id последнего пользователя предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return пользователи, упорядоченные по id
+     */
+    @Transactional(readOnly = true)
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Потоково читает всех пользователей в виде DTO-проекции для выгрузки.
+     * <p>
+     * Строки забираются из БД порциями по fetch size и не попадают в контекст персистентности,
+     * поэтому потребление памяти не зависит от размера таблицы.
+     * Поток нужно читать внутри транзакции и закрывать после использования.
+     *
+     * @return поток пользователей, упорядоченных по id
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.lms.dto.UserResponse(u.id, u.firstName, u.lastName, u.email, u.status, u.role) " +
+            "from User u order by u.id")
+    Stream<UserResponse> streamAllForExport();
+
+    /**
+     * Возвращает те id из переданных, для которых существуют пользователи.
+     *
+     * @param ids проверяемые идентификаторы
+     * @return существующие идентификаторы
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
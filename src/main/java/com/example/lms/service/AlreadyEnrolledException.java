@@ -0,0 +1,18 @@
+package com.example.lms.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Студент уже записан на курс (409).
+ */
+public final class AlreadyEnrolledException extends IllegalStateException implements EnrollmentRejection {
+
+    public AlreadyEnrolledException() {
+        super("Student is already enrolled to this course.");
+    }
+
+    @Override
+    public HttpStatus status() {
+        return HttpStatus.CONFLICT;
+    }
+}
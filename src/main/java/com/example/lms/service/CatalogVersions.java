@@ -0,0 +1,91 @@
+package com.example.lms.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии изменяемых представлений каталога: списка курсов, карточки курса и ростера курса.
+ * Из версий строятся ETag ответов, поэтому условный GET ({@code If-None-Match}) отвечает 304,
+ * не выполняя запрос к БД и не сериализуя тело.
+ * <p>
+ * Версия — значение общего монотонного счётчика на момент последнего изменения, поэтому удалённый
+ * и заново созданный курс не получит прежнюю версию. В ETag входит эпоха — время старта экземпляра:
+ * после перезапуска все ранее выданные ETag перестают совпадать.
+ * <p>
+ * Изменения регистрируются сервисами записи ({@link CourseService}, {@link EnrollmentService},
+ * {@link UserService}) и применяются после фиксации транзакции. Читающий код должен брать ETag
+ * <b>до</b> выборки данных и читать данные из основной БД: тогда ответ может оказаться новее своего ETag,
+ * но не старее, и клиент в худшем случае один раз получит лишний 200. Из отстающей реплики ответ мог бы
+ * оказаться старее ETag и остался бы у клиента до следующего изменения, поэтому ответы с ETag реплику
+ * не читают. Изменения в обход сервисов (напрямую в БД) версии не меняют.
+ * <p>
+ * Версии рассчитаны на один экземпляр приложения, как и {@link EnrollmentIndex}: у каждого экземпляра своя
+ * эпоха, а записи, прошедшие через другой экземпляр, версии этого не меняют — за балансировщиком клиент
+ * получал бы 304 на устаревший ответ. Для нескольких экземпляров ETag нужно строить из сохранённого
+ * в БД состояния.
+ */
+@Component
+public class CatalogVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong catalogueVersion = new AtomicLong();
+    private final AtomicLong usersVersion = new AtomicLong();
+    private final Map<Long, Long> courseVersions = new ConcurrentHashMap<>();
+    private final Map<Long, Long> rosterVersions = new ConcurrentHashMap<>();
+
+    /**
+     * @return ETag списка курсов ({@code GET /api/courses}); одинаков для всех страниц одной версии каталога
+     */
+    public String catalogueTag() {
+        return "\"courses-" + epoch + "-" + catalogueVersion.get() + "\"";
+    }
+
+    /**
+     * @return ETag карточки курса ({@code GET /api/courses/{id}})
+     */
+    public String courseTag(long courseId) {
+        return "\"course-" + courseId + "-" + epoch + "-" + courseVersions.getOrDefault(courseId, 0L) + "\"";
+    }
+
+    /**
+     * ETag ростера зависит и от карточки курса (курс может быть удалён), и от данных пользователей,
+     * попадающих в ответ.
+     *
+     * @return ETag ростера курса ({@code GET /api/courses/{id}/students})
+     */
+    public String rosterTag(long courseId) {
+        return "\"roster-" + courseId + "-" + epoch + "-" + courseVersions.getOrDefault(courseId, 0L)
+                + "." + rosterVersions.getOrDefault(courseId, 0L) + "." + usersVersion.get() + "\"";
+    }
+
+    /**
+     * Курс создан, изменён или удалён: меняются его карточка и список курсов.
+     */
+    public void courseChanged(long courseId) {
+        AfterCommit.run(() -> {
+            long version = clock.incrementAndGet();
+            courseVersions.merge(courseId, version, Math::max);
+            // синхронизации разных транзакций выполняются не в порядке версий: версия только растёт
+            catalogueVersion.accumulateAndGet(version, Math::max);
+        });
+    }
+
+    /**
+     * Изменился состав студентов курса.
+     */
+    public void rosterChanged(long courseId) {
+        AfterCommit.run(() -> rosterVersions.merge(courseId, clock.incrementAndGet(), Math::max));
+    }
+
+    /**
+     * Изменились данные пользователя: он может входить в любой ростер.
+     */
+    public void userChanged() {
+        AfterCommit.run(() -> usersVersion.accumulateAndGet(clock.incrementAndGet(), Math::max));
+    }
+}
@@ -0,0 +1,688 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.CourseSearchResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory инвертированный индекс курсов по названию и описанию для {@code GET /api/courses/search}.
+ * <p>
+ * Каждому курсу присваивается плотный порядковый номер (ordinal). Словарь термов — {@link ConcurrentSkipListMap},
+ * поэтому префиксный поиск — это обход диапазона ключей. Для каждого терма хранится неизменяемый список
+ * вхождений ({@link Postings}): номера курсов по возрастанию и вес терма в курсе. Изменение курса заменяет
+ * списки его термов копиями, поэтому чтение идёт без блокировок.
+ * <p>
+ * Поиск накапливает баллы по номеру курса (term-at-a-time): первым обходится самое редкое слово запроса,
+ * его вхождения задают кандидатов, остальные слова либо обходят свои списки, либо проверяются двоичным поиском
+ * по кандидатам — смотря что дешевле. Курс должен содержать все слова запроса. Баллы лежат в хеш-таблице
+ * ({@link Accumulator}) размером по числу вхождений самого редкого слова, а не по размеру каталога.
+ * <p>
+ * Ранжирование: вес терма в курсе {@code 1 + ln(tf)}, где вхождение в название считается за
+ * {@value #TITLE_WEIGHT}, умножается на idf {@code ln(1 + N / df)}; совпадение по префиксу дополнительно
+ * умножается на {@value #PREFIX_MATCH_FACTOR}. Баллы всех совпавших термов складываются.
+ * <p>
+ * Префикс раскрывается не больше чем в {@value #MAX_PREFIX_EXPANSIONS} термов словаря: если продолжений больше,
+ * берутся самые частые (по числу курсов), а ответ помечается {@link CourseSearchResponse#isTruncated()} —
+ * курсы только с редкими продолжениями не найдутся и не войдут в {@code total}.
+ * <p>
+ * Как и {@link EnrollmentIndex}, индекс загружается после старта приложения одним потоковым запросом,
+ * изменения через {@link CourseService} применяются после фиксации транзакции, изменения в обход сервиса
+ * попадут в индекс только после перезагрузки. Изменения применяются по одному под {@link ReentrantLock}
+ * (не {@code synchronized}, чтобы не закреплять виртуальные потоки за потоками-носителями).
+ */
+@Component
+public class CourseSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchIndex.class);
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float PREFIX_MATCH_FACTOR = 0.7f;
+
+    /**
+     * Более короткие слова запроса ищутся только целиком: у коротких префиксов слишком много продолжений.
+     */
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MAX_QUERY_TERMS = 8;
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    /**
+     * Примерная стоимость проверки кандидата двоичным поиском относительно шага обхода списка.
+     */
+    private static final int PROBE_COST = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTx;
+    private final boolean enabled;
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    /**
+     * id курса по номеру; номер удалённого курса не переиспользуется до перезагрузки.
+     */
+    private volatile long[] idsByOrdinal = new long[0];
+    private int nextOrdinal;
+
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final Queue<Runnable> pendingDuringLoad = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public CourseSearchIndex(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.course.search.enabled:true}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Не read-only: такие транзакции читают из реплики, а индекс дополняется изменениями после коммита
+        // и должен стартовать с данных основной БД, иначе потеряет записи, ещё не дошедшие до реплики
+        this.loadTx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+
+        if (enabled) {
+            Gauge.builder("lms.course.search.documents", documents, Map::size)
+                    .description("Courses held by the in-memory search index")
+                    .register(meterRegistry);
+            Gauge.builder("lms.course.search.terms", terms, Map::size)
+                    .description("Distinct terms in the in-memory course search index")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Строит индекс с нуля одним потоковым запросом. Номера курсам раздаются по порядку,
+     * поэтому списки вхождений собираются добавлением в конец и сортировать их не нужно.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        ready = false;
+        loading = true;
+
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        Map<Long, Document> loaded = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        loadTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("select id, title, description from courses order by id");
+            ps.setFetchSize(LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            long id = rs.getLong(1);
+            String title = rs.getString(2);
+            int ordinal = ids.size();
+            Map<String, Float> weights = termWeights(title, rs.getString(3));
+            weights.forEach((term, weight) ->
+                    builders.computeIfAbsent(term, t -> new PostingsBuilder()).add(ordinal, weight));
+            loaded.put(id, new Document(ordinal, title, weights.keySet().toArray(String[]::new)));
+            ids.add(id);
+        }));
+
+        updateLock.lock();
+        try {
+            terms.clear();
+            documents.clear();
+            builders.forEach((term, builder) -> terms.put(term, builder.build()));
+            documents.putAll(loaded);
+            idsByOrdinal = ids.stream().mapToLong(Long::longValue).toArray();
+            nextOrdinal = ids.size();
+        } finally {
+            updateLock.unlock();
+        }
+        pendingLock.lock();
+        try {
+            Runnable change;
+            while ((change = pendingDuringLoad.poll()) != null) {
+                change.run();
+            }
+            loading = false;
+        } finally {
+            pendingLock.unlock();
+        }
+        ready = true;
+
+        log.info("Course search index loaded: {} courses, {} terms in {} ms",
+                documents.size(), terms.size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * @return {@code true}, если индекс включён и загружен
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Регистрирует создание или изменение курса; применяется после фиксации текущей транзакции.
+     */
+    public void onCourseSaved(long courseId, String title, String description) {
+        afterCommit(() -> applyUpsert(courseId, title, description));
+    }
+
+    /**
+     * Регистрирует удаление курса; применяется после фиксации текущей транзакции.
+     */
+    public void onCourseDeleted(long courseId) {
+        afterCommit(() -> applyRemove(courseId));
+    }
+
+    /**
+     * Ищет курсы, содержащие все слова запроса; слово длиной от {@value #MIN_PREFIX_LENGTH} символов
+     * совпадает и с термами, которые с него начинаются.
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество результатов
+     * @return найденные курсы по убыванию релевантности (при равенстве — по id) и общее число совпадений
+     */
+    public CourseSearchResponse search(String query, int limit) {
+        List<String> queryTerms = tokenize(query).stream().distinct().limit(MAX_QUERY_TERMS).toList();
+        if (queryTerms.isEmpty()) {
+            return new CourseSearchResponse(query, 0, List.of(), false);
+        }
+        long[] ids = idsByOrdinal;
+        int documentCount = Math.max(1, documents.size());
+
+        List<Match[]> matches = new ArrayList<>(queryTerms.size());
+        boolean truncated = false;
+        for (String term : queryTerms) {
+            List<Match> expansions = new ArrayList<>();
+            truncated |= expand(term, documentCount, expansions);
+            if (expansions.isEmpty()) {
+                return new CourseSearchResponse(query, 0, List.of(), truncated);
+            }
+            matches.add(expansions.toArray(Match[]::new));
+        }
+        matches.sort(Comparator.comparingLong(CourseSearchIndex::totalPostings));
+
+        Accumulator acc = new Accumulator(totalPostings(matches.get(0)));
+        collectCandidates(matches.get(0), acc, ids.length);
+        for (int t = 1; t < matches.size(); t++) {
+            addTerm(matches.get(t), (byte) (1 << t), acc, ids.length);
+        }
+        return rank(query, acc, (byte) ((1 << matches.size()) - 1), ids, limit, truncated);
+    }
+
+    /**
+     * Первое (самое редкое) слово запроса задаёт множество кандидатов.
+     */
+    private static void collectCandidates(Match[] expansions, Accumulator acc, int ordinals) {
+        for (Match match : expansions) {
+            int[] ords = match.postings.ordinals;
+            float[] weights = match.postings.weights;
+            for (int i = 0; i < ords.length; i++) {
+                int ord = ords[i];
+                if (ord >= ordinals) {
+                    continue; // курс добавлен после начала запроса
+                }
+                int slot = acc.add(ord);
+                acc.masks[slot] = 1;
+                acc.scores[slot] += weights[i] * match.multiplier;
+            }
+        }
+    }
+
+    /**
+     * Добавляет баллы очередного слова кандидатам: обходом списков вхождений, если они короче,
+     * чем проверка каждого кандидата двоичным поиском, иначе — двоичным поиском.
+     */
+    private static void addTerm(Match[] expansions, byte bit, Accumulator acc, int ordinals) {
+        long scanCost = totalPostings(expansions);
+        long probeCost = (long) acc.size * expansions.length * PROBE_COST;
+        if (scanCost <= probeCost) {
+            for (Match match : expansions) {
+                int[] ords = match.postings.ordinals;
+                float[] weights = match.postings.weights;
+                for (int i = 0; i < ords.length; i++) {
+                    int slot = ords[i] < ordinals ? acc.find(ords[i]) : -1;
+                    if (slot >= 0) {
+                        acc.masks[slot] |= bit;
+                        acc.scores[slot] += weights[i] * match.multiplier;
+                    }
+                }
+            }
+        } else {
+            for (int k = 0; k < acc.size; k++) {
+                int slot = acc.used[k];
+                int ord = acc.ordinal(slot);
+                for (Match match : expansions) {
+                    int index = Arrays.binarySearch(match.postings.ordinals, ord);
+                    if (index >= 0) {
+                        acc.masks[slot] |= bit;
+                        acc.scores[slot] += match.postings.weights[index] * match.multiplier;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Отбирает {@code limit} лучших кандидатов, содержащих все слова, кучей на массиве ячеек.
+     */
+    private CourseSearchResponse rank(String query, Accumulator acc, byte allTerms, long[] ids, int limit,
+                                      boolean truncated) {
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        int total = 0;
+        for (int k = 0; k < acc.size; k++) {
+            int slot = acc.used[k];
+            if (acc.masks[slot] != allTerms) {
+                continue;
+            }
+            total++;
+            if (heapSize < limit) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++, acc, ids);
+            } else if (better(slot, heap[0], acc, ids)) {
+                heap[0] = slot;
+                siftDown(heap, heapSize, acc, ids);
+            }
+        }
+
+        Integer[] ranked = new Integer[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            ranked[i] = heap[i];
+        }
+        Arrays.sort(ranked, (a, b) -> better(a, b, acc, ids) ? -1 : better(b, a, acc, ids) ? 1 : 0);
+
+        List<CourseSearchResponse.Hit> hits = new ArrayList<>(heapSize);
+        for (int slot : ranked) {
+            int ord = acc.ordinal(slot);
+            Document document = documents.get(ids[ord]);
+            if (document != null && document.ordinal == ord) {
+                hits.add(new CourseSearchResponse.Hit(ids[ord], document.title, acc.scores[slot]));
+            }
+        }
+        return new CourseSearchResponse(query, total, hits, truncated);
+    }
+
+    /**
+     * Больший балл лучше; при равенстве лучше меньший id.
+     */
+    private static boolean better(int a, int b, Accumulator acc, long[] ids) {
+        int byScore = Float.compare(acc.scores[a], acc.scores[b]);
+        return byScore != 0 ? byScore > 0 : ids[acc.ordinal(a)] < ids[acc.ordinal(b)];
+    }
+
+    /**
+     * В корне кучи — худший из отобранных кандидатов.
+     */
+    private static void siftUp(int[] heap, int index, Accumulator acc, long[] ids) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index], acc, ids)) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, Accumulator acc, long[] ids) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int worst = left + 1 < size && better(heap[left], heap[left + 1], acc, ids) ? left + 1 : left;
+            if (!better(heap[index], heap[worst], acc, ids)) {
+                break;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    /**
+     * Разбивает текст на термы: последовательности букв и цифр в нижнем регистре.
+     * Однобуквенные термы отбрасываются, слишком длинные обрезаются.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    tokens.add(text.substring(start, Math.min(i, start + MAX_TERM_LENGTH)).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static Map<String, Float> termWeights(String title, String description) {
+        Map<String, Float> frequencies = new LinkedHashMap<>();
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Float::sum);
+        }
+        for (String term : tokenize(description)) {
+            frequencies.merge(term, 1f, Float::sum);
+        }
+        frequencies.replaceAll((term, tf) -> 1f + (float) Math.log(tf));
+        return frequencies;
+    }
+
+    /**
+     * Точное совпадение терма и до {@value #MAX_PREFIX_EXPANSIONS} самых частых термов, начинающихся с него.
+     *
+     * @param expansions список, в который добавляются совпадения
+     * @return {@code true}, если продолжений больше лимита и часть редких отброшена
+     */
+    private boolean expand(String term, int documentCount, List<Match> expansions) {
+        Postings exact = terms.get(term);
+        if (exact != null) {
+            expansions.add(new Match(exact, idf(exact, documentCount)));
+        }
+        if (term.length() < MIN_PREFIX_LENGTH) {
+            return false;
+        }
+        List<Postings> prefixed = new ArrayList<>();
+        for (Map.Entry<String, Postings> entry : terms.tailMap(term, false).entrySet()) {
+            if (!entry.getKey().startsWith(term)) {
+                break;
+            }
+            prefixed.add(entry.getValue());
+        }
+        boolean truncated = prefixed.size() > MAX_PREFIX_EXPANSIONS;
+        if (truncated) {
+            // Сортировка устойчива: при равной частоте остаётся словарный порядок
+            prefixed.sort(Comparator.comparingInt((Postings postings) -> postings.ordinals.length).reversed());
+            prefixed = prefixed.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+        for (Postings postings : prefixed) {
+            expansions.add(new Match(postings, idf(postings, documentCount) * PREFIX_MATCH_FACTOR));
+        }
+        return truncated;
+    }
+
+    private static float idf(Postings postings, int documentCount) {
+        return (float) Math.log(1 + (double) documentCount / postings.ordinals.length);
+    }
+
+    private static long totalPostings(Match[] expansions) {
+        long total = 0;
+        for (Match match : expansions) {
+            total += match.postings.ordinals.length;
+        }
+        return total;
+    }
+
+    private void applyUpsert(long courseId, String title, String description) {
+        Map<String, Float> weights = termWeights(title, description);
+        updateLock.lock();
+        try {
+            Document previous = documents.get(courseId);
+            int ordinal;
+            if (previous != null) {
+                ordinal = previous.ordinal;
+                removePostings(previous);
+            } else {
+                ordinal = nextOrdinal++;
+                long[] ids = idsByOrdinal;
+                if (ordinal >= ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(16, ids.length + (ids.length >> 1)));
+                }
+                ids[ordinal] = courseId;
+                idsByOrdinal = ids;
+            }
+            weights.forEach((term, weight) -> terms.compute(term, (t, postings) ->
+                    postings == null ? Postings.single(ordinal, weight) : postings.with(ordinal, weight)));
+            documents.put(courseId, new Document(ordinal, title, weights.keySet().toArray(String[]::new)));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void applyRemove(long courseId) {
+        updateLock.lock();
+        try {
+            Document previous = documents.remove(courseId);
+            if (previous != null) {
+                removePostings(previous);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void removePostings(Document document) {
+        for (String term : document.terms) {
+            terms.computeIfPresent(term, (t, postings) -> postings.without(document.ordinal));
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        Runnable guarded = () -> {
+            if (loading) {
+                pendingLock.lock();
+                try {
+                    if (loading) {
+                        pendingDuringLoad.add(change);
+                        return;
+                    }
+                } finally {
+                    pendingLock.unlock();
+                }
+            }
+            change.run();
+        };
+        AfterCommit.run(guarded);
+    }
+
+    /**
+     * Номер курса, название (для выдачи) и его термы (для удаления из индекса при изменении).
+     */
+    private record Document(int ordinal, String title, String[] terms) {
+    }
+
+    /**
+     * Терм запроса, сопоставленный терму словаря: список вхождений и множитель веса (idf, штраф за префикс).
+     */
+    private record Match(Postings postings, float multiplier) {
+    }
+
+    /**
+     * Неизменяемый список вхождений терма: номера курсов по возрастанию и веса терма в них.
+     */
+    static final class Postings {
+
+        final int[] ordinals;
+        final float[] weights;
+
+        Postings(int[] ordinals, float[] weights) {
+            this.ordinals = ordinals;
+            this.weights = weights;
+        }
+
+        static Postings single(int ordinal, float weight) {
+            return new Postings(new int[]{ordinal}, new float[]{weight});
+        }
+
+        Postings with(int ordinal, float weight) {
+            int index = Arrays.binarySearch(ordinals, ordinal);
+            if (index >= 0) {
+                float[] newWeights = weights.clone();
+                newWeights[index] = weight;
+                return new Postings(ordinals, newWeights);
+            }
+            int insertAt = -index - 1;
+            int[] newOrdinals = new int[ordinals.length + 1];
+            float[] newWeights = new float[ordinals.length + 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, insertAt);
+            System.arraycopy(weights, 0, newWeights, 0, insertAt);
+            newOrdinals[insertAt] = ordinal;
+            newWeights[insertAt] = weight;
+            System.arraycopy(ordinals, insertAt, newOrdinals, insertAt + 1, ordinals.length - insertAt);
+            System.arraycopy(weights, insertAt, newWeights, insertAt + 1, ordinals.length - insertAt);
+            return new Postings(newOrdinals, newWeights);
+        }
+
+        /**
+         * @return список без курса или {@code null}, если он стал пустым (терм удаляется из словаря)
+         */
+        Postings without(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, ordinal);
+            if (index < 0) {
+                return this;
+            }
+            if (ordinals.length == 1) {
+                return null;
+            }
+            int[] newOrdinals = new int[ordinals.length - 1];
+            float[] newWeights = new float[ordinals.length - 1];
+            System.arraycopy(ordinals, 0, newOrdinals, 0, index);
+            System.arraycopy(weights, 0, newWeights, 0, index);
+            System.arraycopy(ordinals, index + 1, newOrdinals, index, ordinals.length - index - 1);
+            System.arraycopy(weights, index + 1, newWeights, index, ordinals.length - index - 1);
+            return new Postings(newOrdinals, newWeights);
+        }
+    }
+
+    /**
+     * Растущий список вхождений для первичной загрузки (номера добавляются по возрастанию).
+     */
+    private static final class PostingsBuilder {
+
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(ordinals, size), Arrays.copyOf(weights, size));
+        }
+    }
+
+    /**
+     * Баллы и маски совпавших слов кандидатов одного запроса: хеш-таблица с открытой адресацией
+     * (линейное пробирование) из номера курса в ячейку параллельных массивов.
+     * <p>
+     * Ёмкость — не меньше удвоенного числа вхождений самого редкого слова (кандидатов не больше), поэтому память
+     * запроса пропорциональна кандидатам, а не каталогу, и освобождается вместе с запросом, а не держится потоком.
+     */
+    private static final class Accumulator {
+
+        private static final int MAX_CAPACITY = 1 << 30;
+
+        /**
+         * Номер курса + 1; 0 — свободная ячейка.
+         */
+        private final int[] keys;
+        private final int shift;
+        final float[] scores;
+        final byte[] masks;
+        /**
+         * Занятые ячейки в порядке добавления: обход кандидатов без просмотра пустых ячеек.
+         */
+        final int[] used;
+        int size;
+
+        Accumulator(long candidates) {
+            int capacity = (int) Math.min(MAX_CAPACITY, Math.max(4, Long.highestOneBit(Math.max(1, candidates) * 2 - 1) << 1));
+            this.keys = new int[capacity];
+            this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+            this.scores = new float[capacity];
+            this.masks = new byte[capacity];
+            this.used = new int[(int) Math.min(capacity, candidates)];
+        }
+
+        /**
+         * @return ячейка курса; создаётся, если курса ещё нет
+         */
+        int add(int ordinal) {
+            int key = ordinal + 1;
+            int slot = slot(ordinal);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            used[size++] = slot;
+            return slot;
+        }
+
+        /**
+         * @return ячейка курса или {@code -1}, если курс не кандидат
+         */
+        int find(int ordinal) {
+            int key = ordinal + 1;
+            int slot = slot(ordinal);
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        int ordinal(int slot) {
+            return keys[slot] - 1;
+        }
+
+        /**
+         * Фибоначчиево хеширование: соседние номера курсов расходятся по таблице.
+         */
+        private int slot(int ordinal) {
+            return (ordinal * 0x9E3779B9) >>> shift;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.lms.service;
+
+import com.example.lms.config.CacheConfig;
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.CourseSearchResponse;
+import com.example.lms.dto.CourseStatsResponse;
+import com.example.lms.entity.Course;
+import com.example.lms.repository.CourseRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Сервисный слой для работы с курсами ({@link Course}).
+ * <p>
+ * Чтение курса по id обслуживается из кэша {@link CacheConfig#COURSES}; все изменения курсов
+ * должны идти через этот сервис, чтобы кэш инвалидировался сразу, а не по истечении TTL,
+ * менялись ETag курса и каталога ({@link CatalogVersions}), обновлялся поисковый индекс ({@link CourseSearchIndex})
+ * и чтения курса в окне {@link ReadYourWrites} шли в основную БД: иначе кэш заполнился бы строкой из отстающей реплики.
+ */
+@Service
+public class CourseService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseService.class);
+
+    private final CourseRepository courseRepository;
+    private final CatalogVersions catalogVersions;
+    private final CourseSearchIndex searchIndex;
+    private final ReadYourWrites readYourWrites;
+
+    public CourseService(CourseRepository courseRepository, CatalogVersions catalogVersions,
+                         CourseSearchIndex searchIndex, ReadYourWrites readYourWrites) {
+        this.courseRepository = courseRepository;
+        this.catalogVersions = catalogVersions;
+        this.searchIndex = searchIndex;
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Возвращает курс по id. Повторные запросы того же курса не обращаются к БД, пока запись в кэше.
+     *
+     * @param id идентификатор курса
+     * @return DTO курса
+     * @throws EntityNotFoundException если курс не найден (отсутствие не кэшируется)
+     */
+    @Cacheable(cacheNames = CacheConfig.COURSES, key = "#id")
+    @Transactional(readOnly = true)
+    public CourseResponse getById(Long id) {
+        log.debug("Course cache miss, loading course id={}", id);
+        Course course = courseRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found: " + id));
+        return CourseResponse.from(course);
+    }
+
+    /**
+     * Возвращает статистику записей на курс из счётчика занятых мест; таблица {@code enrollments} не читается.
+     * Счётчик ведёт {@link EnrollmentService} и периодически сверяет {@link CourseStatsReconciler}.
+     *
+     * @param id идентификатор курса
+     * @return статистика курса
+     * @throws EntityNotFoundException если курс не найден
+     */
+    public CourseStatsResponse getStats(Long id) {
+        return courseRepository.findStatsById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found: " + id));
+    }
+
+    /**
+     * Создаёт или обновляет курс, сбрасывает его запись в кэше и меняет версии курса и каталога ({@link CatalogVersions}).
+     *
+     * @param course сущность курса
+     * @return сохранённая сущность
+     */
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#result.id")
+    @Transactional
+    public Course save(Course course) {
+        Course saved = courseRepository.save(course);
+        catalogVersions.courseChanged(saved.getId());
+        readYourWrites.courseChanged(saved.getId());
+        searchIndex.onCourseSaved(saved.getId(), saved.getTitle(), saved.getDescription());
+        return saved;
+    }
+
+    /**
+     * Удаляет курс и его запись в кэше, меняет версии курса и каталога.
+     *
+     * @param id идентификатор курса
+     */
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#id")
+    @Transactional
+    public void deleteById(Long id) {
+        courseRepository.deleteById(id);
+        catalogVersions.courseChanged(id);
+        readYourWrites.courseChanged(id);
+        searchIndex.onCourseDeleted(id);
+    }
+
+    /**
+     * Ищет курсы по словам из названия и описания в {@link CourseSearchIndex}, без обращения к БД.
+     *
+     * @param query строка запроса
+     * @param limit максимальное количество результатов
+     * @return лучшие совпадения и общее количество совпавших курсов
+     * @throws ResponseStatusException 503, если индекс ещё не загружен или отключён
+     */
+    public CourseSearchResponse search(String query, int limit) {
+        if (!searchIndex.isReady()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Course search index is not loaded");
+        }
+        return searchIndex.search(query, limit);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.lms.service;
+
+import com.example.lms.repository.CourseRepository;
+import com.example.lms.repository.CourseRepositoryCustom.SeatCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Периодическая сверка счётчиков занятых мест ({@code courses.enrolled_count}) с таблицей {@code enrollments}.
+ * <p>
+ * Счётчики обновляет {@link EnrollmentService} в транзакциях записи и отписки, и на них отвечает
+ * {@code GET /api/courses/{id}/stats}. Разойтись с фактом они могут только при изменении {@code enrollments}
+ * в обход сервиса (SQL вручную, восстановление из резервной копии). Каждые {@code app.course.stats.reconcile.interval}
+ * курсы обходятся порциями по {@code app.course.stats.reconcile.batch-size}: на порцию — один агрегирующий запрос
+ * без блокировок, а найденные расхождения перепроверяются и исправляются по одному курсу под блокировкой его строки.
+ * <p>
+ * Метрики: {@code lms.course.stats.corrections} (исправленные счётчики) и {@code lms.course.stats.reconcile}
+ * (время сверки).
+ */
+@Component
+@ConditionalOnProperty(name = "app.course.stats.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class CourseStatsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseStatsReconciler.class);
+
+    private final CourseRepository courseRepository;
+    private final SeatAvailability seatAvailability;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Counter corrections;
+    private final Timer reconcileTimer;
+
+    public CourseStatsReconciler(
+            CourseRepository courseRepository,
+            SeatAvailability seatAvailability,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.course.stats.reconcile.batch-size:1000}") int batchSize
+    ) {
+        this.courseRepository = courseRepository;
+        this.seatAvailability = seatAvailability;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+
+        this.corrections = Counter.builder("lms.course.stats.corrections")
+                .description("Course enrollment counters corrected by reconciliation")
+                .register(meterRegistry);
+        this.reconcileTimer = Timer.builder("lms.course.stats.reconcile")
+                .description("Time to reconcile all course enrollment counters")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.course.stats.reconcile.interval:PT5M}",
+            initialDelayString = "${app.course.stats.reconcile.interval:PT5M}")
+    void scheduledRun() {
+        reconcile();
+    }
+
+    /**
+     * Сверяет счётчики всех курсов и исправляет расхождения.
+     *
+     * @return количество исправленных счётчиков
+     */
+    public synchronized int reconcile() {
+        return reconcileTimer.record(() -> {
+            int corrected = 0;
+            long after = 0;
+            while (true) {
+                long cursor = after;
+                List<SeatCount> page = transactionTemplate.execute(
+                        status -> courseRepository.findSeatCounts(cursor, batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (SeatCount count : page) {
+                    if (count.isDrifted() && correct(count.courseId())) {
+                        corrected++;
+                    }
+                }
+                after = page.get(page.size() - 1).courseId();
+            }
+            if (corrected > 0) {
+                log.warn("Course stats reconciliation corrected {} enrollment counters", corrected);
+            }
+            return corrected;
+        });
+    }
+
+    private boolean correct(long courseId) {
+        int delta = transactionTemplate.execute(status -> courseRepository.reconcileSeats(courseId));
+        if (delta == 0) {
+            return false; // расхождение было видимостью конкурентной записи
+        }
+        corrections.increment();
+        if (delta < 0) {
+            seatAvailability.markAvailable(courseId);
+        }
+        log.info("Course {} enrollment counter corrected by {}", courseId, delta);
+        return true;
+    }
+}
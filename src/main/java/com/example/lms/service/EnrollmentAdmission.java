@@ -0,0 +1,265 @@
+package com.example.lms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Допуск запросов записи на курс: ограничение частоты для каждого студента и общее ограничение
+ * одновременно выполняемых записей.
+ * <p>
+ * Частота ограничивается token bucket'ом на студента в форме GCRA: состояние ведра — одно число,
+ * «теоретическое время прибытия» следующего запроса (TAT). Запрос допускается, если TAT опережает текущее время
+ * не больше чем на {@code burst - 1} интервалов ({@code 1 / rate}), и сдвигает TAT на интервал. Вёдра хранятся
+ * в массиве фиксированного размера ({@code app.enrollment.admission.per-student.capacity}) с открытой адресацией
+ * и обновляются через CAS, без блокировок. Ячейку студента, у которого ведро снова полное (TAT в прошлом),
+ * может занять другой студент, поэтому память не растёт с числом студентов; новое ведро заводится, только если
+ * на пути пробирования нет ведра самого студента. Если все ячейки на пути пробирования
+ * заняты активными студентами, запрос допускается без проверки частоты (счётчик {@code outcome=untracked}).
+ * <p>
+ * Общее ограничение — семафор на {@code app.enrollment.admission.max-concurrent} записей (по умолчанию размер пула
+ * Hikari). Разрешение берётся без ожидания: лишние запросы сразу получают 503, а не встают в очередь пула.
+ * В режиме виртуальных потоков тот же семафор ограничивает и остальные запросы API
+ * ({@code DbConcurrencyLimitFilter}), поэтому общее число обращений к БД не превышает одного лимита.
+ * Отказ по частоте — 429. Оба ответа содержат {@code Retry-After}.
+ */
+@Component
+public class EnrollmentAdmission {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentAdmission.class);
+
+    /**
+     * Сколько соседних ячеек просматривается в поисках ведра студента или свободной ячейки.
+     */
+    private static final int MAX_PROBES = 8;
+
+    private final boolean enabled;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int mask;
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long startNanos = System.nanoTime();
+
+    private final Counter admitted;
+    private final Counter untracked;
+    private final Counter rejectedStudent;
+    private final Counter rejectedGlobal;
+
+    public EnrollmentAdmission(
+            @Value("${app.enrollment.admission.enabled:true}") boolean enabled,
+            @Value("${app.enrollment.admission.per-student.rate:5}") double ratePerSecond,
+            @Value("${app.enrollment.admission.per-student.burst:10}") int burst,
+            @Value("${app.enrollment.admission.per-student.capacity:65536}") int capacity,
+            @Value("${app.enrollment.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            MeterRegistry meterRegistry
+    ) {
+        if (ratePerSecond <= 0 || burst < 1 || capacity < 1 || maxConcurrent < 1) {
+            throw new IllegalArgumentException("Enrollment admission limits must be positive");
+        }
+        this.enabled = enabled;
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.buckets = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+
+        this.admitted = outcome(meterRegistry, "admitted");
+        this.untracked = outcome(meterRegistry, "untracked");
+        this.rejectedStudent = outcome(meterRegistry, "rejected_student");
+        this.rejectedGlobal = outcome(meterRegistry, "rejected_global");
+        Gauge.builder("lms.enrollment.admission.in-flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("Enrollment requests currently holding a concurrency permit")
+                .register(meterRegistry);
+
+        if (enabled) {
+            log.info("Enrollment admission: {} req/s per student (burst {}), at most {} concurrent",
+                    ratePerSecond, burst, maxConcurrent);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int maxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * @return семафор одновременных обращений к БД; общий с {@code DbConcurrencyLimitFilter}
+     */
+    public Semaphore concurrencyPermits() {
+        return permits;
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("lms.enrollment.admission")
+                .description("Enrollment requests by admission outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Допускает запрос студента: проверяет его частоту и берёт общее разрешение.
+     *
+     * @param studentId идентификатор студента
+     * @return разрешение, которое нужно закрыть по окончании запроса
+     * @throws Rejected 429, если студент превысил частоту; 503, если заняты все разрешения
+     */
+    public Permit admit(long studentId) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        long retryAfterNanos = tryConsume(studentId);
+        if (retryAfterNanos > 0) {
+            rejectedStudent.increment();
+            throw new Rejected(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many enrollment requests for student " + studentId, retryAfterNanos);
+        }
+        return acquire();
+    }
+
+    /**
+     * Допускает запрос без проверки частоты по студенту (пакетная запись): только общее разрешение.
+     *
+     * @return разрешение, которое нужно закрыть по окончании запроса
+     * @throws Rejected 503, если заняты все разрешения
+     */
+    public Permit admit() {
+        return enabled ? acquire() : Permit.NONE;
+    }
+
+    private Permit acquire() {
+        if (!permits.tryAcquire()) {
+            rejectedGlobal.increment();
+            throw new Rejected(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent enrollment requests, retry later.", TimeUnit.SECONDS.toNanos(1));
+        }
+        admitted.increment();
+        return permits::release;
+    }
+
+    /**
+     * Расходует токен студента.
+     *
+     * @return 0, если токен получен; иначе через сколько наносекунд появится следующий токен
+     */
+    long tryConsume(long studentId) {
+        return tryConsume(studentId, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Сначала ищет ведро студента на всём пути пробирования и только если его нет — занимает первую свободную
+     * ячейку или ячейку с полным ведром (TAT в прошлом). Иначе студент, упёршийся в лимит, получал бы новое ведро
+     * в ячейке перед своим, как только её владелец затихнет.
+     *
+     * @param now текущее время (нс от старта)
+     */
+    long tryConsume(long studentId, long now) {
+        int home = home(studentId);
+        while (true) {
+            int ownIndex = -1;
+            int freeIndex = -1;
+            Bucket own = null;
+            Bucket free = null;
+            for (int probe = 0; probe < MAX_PROBES; probe++) {
+                int index = (home + probe) & mask;
+                Bucket bucket = buckets.get(index);
+                if (bucket != null && bucket.studentId == studentId) {
+                    ownIndex = index;
+                    own = bucket;
+                    break;
+                }
+                if (freeIndex < 0 && (bucket == null || bucket.tat <= now)) {
+                    freeIndex = index;
+                    free = bucket;
+                }
+            }
+
+            if (ownIndex >= 0) {
+                long tat = Math.max(own.tat, now);
+                if (tat - now > toleranceNanos) {
+                    return tat - now - toleranceNanos;
+                }
+                if (buckets.compareAndSet(ownIndex, own, new Bucket(studentId, tat + intervalNanos))) {
+                    return 0;
+                }
+            } else if (freeIndex >= 0) {
+                if (buckets.compareAndSet(freeIndex, free, new Bucket(studentId, now + intervalNanos))) {
+                    return 0;
+                }
+            } else {
+                // Все ячейки на пути заняты другими активными студентами
+                untracked.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return начальная ячейка студента до наложения маски размера массива
+     */
+    static int home(long studentId) {
+        return Long.hashCode(studentId * 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * Ведро студента: неизменяемое, заменяется целиком через CAS.
+     *
+     * @param tat теоретическое время прибытия следующего запроса (нс от старта)
+     */
+    private record Bucket(long studentId, long tat) {
+    }
+
+    /**
+     * Разрешение на выполнение записи; закрывается в {@code try-with-resources}.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Отказ в допуске: 429 или 503 с заголовком {@code Retry-After} (в секундах, с округлением вверх).
+     */
+    public static class Rejected extends ResponseStatusException {
+
+        private final long retryAfterSeconds;
+
+        Rejected(HttpStatus status, String reason, long retryAfterNanos) {
+            super(status, reason);
+            this.retryAfterSeconds = Math.max(1, (retryAfterNanos + 999_999_999) / 1_000_000_000);
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return headers;
+        }
+    }
+}
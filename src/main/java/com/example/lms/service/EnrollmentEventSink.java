@@ -0,0 +1,23 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.EnrollmentEvent;
+
+import java.util.List;
+
+/**
+ * Получатель событий о записях на курсы, в который {@link OutboxPublisher} доставляет outbox.
+ * <p>
+ * Реализация выбирается свойством {@code app.outbox.sink}: {@code file} ({@link FileEnrollmentEventSink}) или
+ * {@code memory} ({@link InMemoryEnrollmentEventSink}); брокер сообщений подключается ещё одной реализацией.
+ */
+public interface EnrollmentEventSink {
+
+    /**
+     * Доставляет порцию событий. Возврат без исключения означает, что события сохранены получателем
+     * и будут удалены из outbox; исключение — что вся порция будет доставлена повторно.
+     *
+     * @param events события в порядке возрастания id
+     * @throws Exception если доставка не удалась
+     */
+    void publish(List<EnrollmentEvent> events) throws Exception;
+}
@@ -0,0 +1,253 @@
+package com.example.lms.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory индекс таблицы {@code enrollments}: для каждого курса — множество id студентов,
+ * для каждого студента — множество id курсов ({@link SortedLongSet}).
+ * <p>
+ * Позволяет отвечать на вопросы «записан ли студент на курс», «сколько студентов на курсе»
+ * и «на какие курсы записан студент» без обращения к БД.
+ * <p>
+ * Индекс включается свойством {@code app.enrollment.index.enabled}. Он загружается после старта приложения;
+ * до окончания загрузки {@link #isReady()} возвращает {@code false}, и вызывающий код должен идти в БД.
+ * Изменения применяются после фиксации транзакции, поэтому откаченные записи в индекс не попадают.
+ * Изменения, зафиксированные во время загрузки, накапливаются и применяются поверх загруженного снимка.
+ * <p>
+ * Индекс локален для экземпляра и видит только изменения, сделанные через {@link EnrollmentService} этого же
+ * экземпляра. Записи, сделанные другим экземпляром или в обход сервиса, в нём не отражаются до перезапуска,
+ * поэтому индекс корректен только для одного экземпляра приложения. Решения «уже записан» и «записи нет»
+ * {@link EnrollmentService} принимает по БД, а расхождения, замеченные при этом, исправляет через {@link #correct}.
+ */
+@Component
+public class EnrollmentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentIndex.class);
+
+    /**
+     * Приблизительные накладные расходы на запись ConcurrentHashMap (узел + ключ Long).
+     */
+    private static final long MAP_ENTRY_BYTES = 48;
+
+    private static final int LOAD_FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate loadTx;
+    private final boolean enabled;
+
+    private final Map<Long, SortedLongSet> studentsByCourse = new ConcurrentHashMap<>();
+    private final Map<Long, SortedLongSet> coursesByStudent = new ConcurrentHashMap<>();
+    private final AtomicLong enrollments = new AtomicLong();
+
+    private final Queue<Runnable> pendingDuringLoad = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock pendingLock = new ReentrantLock();
+    private volatile boolean loading;
+    private volatile boolean ready;
+
+    public EnrollmentIndex(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.enrollment.index.enabled:false}") boolean enabled
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Не read-only: такие транзакции читают из реплики, а индекс дополняется изменениями после коммита
+        // и должен стартовать с данных основной БД, иначе потеряет записи, ещё не дошедшие до реплики
+        this.loadTx = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+
+        if (enabled) {
+            Gauge.builder("lms.enrollment.index.entries", enrollments, AtomicLong::get)
+                    .description("Enrollments held by the in-memory index")
+                    .register(meterRegistry);
+            Gauge.builder("lms.enrollment.index.memory", this, EnrollmentIndex::estimatedBytes)
+                    .description("Estimated heap used by the in-memory enrollment index")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Загружает индекс из БД одним потоковым запросом.
+     * Строки упорядочены по (course_id, student_id), поэтому значения добавляются в конец массивов без сдвигов.
+     * Повторный вызов перезагружает индекс с нуля.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        ready = false;
+        loading = true;
+        studentsByCourse.clear();
+        coursesByStudent.clear();
+        enrollments.set(0);
+
+        // в PostgreSQL fetch size работает только внутри транзакции (без autocommit)
+        loadTx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select course_id, student_id from enrollments order by course_id, student_id");
+            ps.setFetchSize(LOAD_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> applyAdd(rs.getLong(2), rs.getLong(1))));
+
+        studentsByCourse.values().forEach(SortedLongSet::trimToSize);
+        coursesByStudent.values().forEach(SortedLongSet::trimToSize);
+
+        pendingLock.lock();
+        try {
+            Runnable change;
+            while ((change = pendingDuringLoad.poll()) != null) {
+                change.run();
+            }
+            loading = false;
+        } finally {
+            pendingLock.unlock();
+        }
+        ready = true;
+
+        log.info("Enrollment index loaded: {} enrollments, {} courses, {} students, ~{} KB in {} ms",
+                enrollments.get(), studentsByCourse.size(), coursesByStudent.size(),
+                estimatedBytes() / 1024, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * @return {@code true}, если индекс включён и загружен; иначе ответы нужно брать из БД
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean contains(long studentId, long courseId) {
+        SortedLongSet students = studentsByCourse.get(courseId);
+        return students != null && students.contains(studentId);
+    }
+
+    public int countStudents(long courseId) {
+        SortedLongSet students = studentsByCourse.get(courseId);
+        return students != null ? students.size() : 0;
+    }
+
+    /**
+     * @return id курсов студента в порядке возрастания
+     */
+    public long[] courseIdsOf(long studentId) {
+        SortedLongSet courses = coursesByStudent.get(studentId);
+        return courses != null ? courses.toArray() : new long[0];
+    }
+
+    /**
+     * Регистрирует новую запись; применяется после фиксации текущей транзакции.
+     */
+    public void onEnrolled(long studentId, long courseId) {
+        afterCommit(() -> applyAdd(studentId, courseId));
+    }
+
+    /**
+     * Регистрирует удаление записи; применяется после фиксации текущей транзакции.
+     */
+    public void onUnenrolled(long studentId, long courseId) {
+        afterCommit(() -> applyRemove(studentId, courseId));
+    }
+
+    /**
+     * Исправляет расхождение с БД, замеченное при записи или отписке; применяется сразу, без ожидания коммита.
+     *
+     * @param present есть ли запись в БД
+     */
+    public void correct(long studentId, long courseId, boolean present) {
+        if (!enabled || contains(studentId, courseId) == present) {
+            return;
+        }
+        log.debug("Enrollment index out of sync for student={}, course={}: present={}", studentId, courseId, present);
+        apply(present ? () -> applyAdd(studentId, courseId) : () -> applyRemove(studentId, courseId));
+    }
+
+    /**
+     * @return приблизительный объём памяти индекса в байтах
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (SortedLongSet set : studentsByCourse.values()) {
+            bytes += MAP_ENTRY_BYTES + set.estimatedBytes();
+        }
+        for (SortedLongSet set : coursesByStudent.values()) {
+            bytes += MAP_ENTRY_BYTES + set.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private void apply(Runnable change) {
+        if (loading) {
+            pendingLock.lock();
+            try {
+                if (loading) {
+                    pendingDuringLoad.add(change);
+                    return;
+                }
+            } finally {
+                pendingLock.unlock();
+            }
+        }
+        change.run();
+    }
+
+    private void applyAdd(long studentId, long courseId) {
+        boolean[] added = new boolean[1];
+        studentsByCourse.compute(courseId, (id, students) -> {
+            SortedLongSet set = students != null ? students : new SortedLongSet();
+            added[0] = set.add(studentId);
+            return set;
+        });
+        coursesByStudent.compute(studentId, (id, courses) -> {
+            SortedLongSet set = courses != null ? courses : new SortedLongSet();
+            set.add(courseId);
+            return set;
+        });
+        if (added[0]) {
+            enrollments.incrementAndGet();
+        }
+    }
+
+    private void applyRemove(long studentId, long courseId) {
+        boolean[] removed = new boolean[1];
+        studentsByCourse.computeIfPresent(courseId, (id, students) -> {
+            removed[0] = students.remove(studentId);
+            return students.size() == 0 ? null : students;
+        });
+        coursesByStudent.computeIfPresent(studentId, (id, courses) -> {
+            courses.remove(courseId);
+            return courses.size() == 0 ? null : courses;
+        });
+        if (removed[0]) {
+            enrollments.decrementAndGet();
+        }
+    }
+}
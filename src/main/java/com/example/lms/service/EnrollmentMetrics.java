@@ -0,0 +1,58 @@
+package com.example.lms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Счётчики исходов записи на курс: {@code lms.enrollments{outcome, source}}.
+ * <p>
+ * {@code outcome} — {@code created}, {@code duplicate}, {@code not_found}, {@code course_full};
+ * {@code source} — {@code single} ({@code POST /api/enrollments}) или {@code batch} ({@code POST /api/enrollments/batch}).
+ * Счётчики регистрируются заранее, поэтому все серии видны в Prometheus с нулевыми значениями.
+ */
+@Component
+public class EnrollmentMetrics {
+
+    /**
+     * Исход одной попытки записи.
+     */
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        NOT_FOUND,
+        COURSE_FULL
+    }
+
+    private final Map<Outcome, Counter> single = new EnumMap<>(Outcome.class);
+    private final Map<Outcome, Counter> batch = new EnumMap<>(Outcome.class);
+
+    public EnrollmentMetrics(MeterRegistry meterRegistry) {
+        for (Outcome outcome : Outcome.values()) {
+            single.put(outcome, counter(meterRegistry, outcome, "single"));
+            batch.put(outcome, counter(meterRegistry, outcome, "batch"));
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Outcome outcome, String source) {
+        return Counter.builder("lms.enrollments")
+                .description("Enrollment attempts by outcome")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    public void recordSingle(Outcome outcome) {
+        single.get(outcome).increment();
+    }
+
+    public void recordBatch(Outcome outcome, int count) {
+        if (count > 0) {
+            batch.get(outcome).increment(count);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.lms.service;
+
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Нет студента, курса или записи, к которым относится запрос (404).
+ */
+public final class EnrollmentNotFoundException extends EntityNotFoundException implements EnrollmentRejection {
+
+    public EnrollmentNotFoundException(String message) {
+        super(message);
+    }
+
+    @Override
+    public HttpStatus status() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
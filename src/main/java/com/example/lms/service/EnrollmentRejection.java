@@ -0,0 +1,19 @@
+package com.example.lms.service;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Окончательный отказ в записи или отписке: повтор того же запроса получит тот же ответ.
+ * <p>
+ * Только такие отказы запоминает {@link IdempotencyStore}. Временные ({@code Course is full} — место может
+ * освободиться, ошибки БД и фреймворка) этот тип не реализуют, и повтор с тем же ключом выполняется заново.
+ */
+public sealed interface EnrollmentRejection permits AlreadyEnrolledException, EnrollmentNotFoundException {
+
+    /**
+     * @return статус ответа на отказ
+     */
+    HttpStatus status();
+
+    String getMessage();
+}
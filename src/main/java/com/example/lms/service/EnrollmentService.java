@@ -1,16 +1,32 @@
 package com.example.lms.service;
 
-import com.example.lms.entity.Course;
+import com.example.lms.dto.EnrollmentBatchResponse;
+import com.example.lms.dto.EnrollmentRequest;
+import com.example.lms.dto.EnrollmentResponse;
 import com.example.lms.entity.Enrollment;
-import com.example.lms.entity.User;
+import com.example.lms.entity.enums.EnrollmentEventType;
 import com.example.lms.repository.CourseRepository;
 import com.example.lms.repository.EnrollmentRepository;
+import com.example.lms.repository.OutboxEventRepository;
 import com.example.lms.repository.UserRepository;
-import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,66 +36,404 @@ import java.util.UUID;
  * <ul>
  *   <li>нельзя записать несуществующего студента на несуществующий курс,</li>
  *   <li>нельзя создать дублирующую запись (student+course),</li>
+ *   <li>нельзя записать на курс больше студентов, чем {@code capacity},</li>
  *   <li>можно отписаться от курса (удалить enrollment).</li>
  * </ul>
+ * Каждая запись и отписка добавляет событие в outbox ({@link OutboxEventRepository}) в той же транзакции;
+ * доставку потребителям выполняет {@link OutboxPublisher}.
  */
 @Service
 public class EnrollmentService {
 
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentService.class);
+
+    /**
+     * Сколько раз выполняется порция пакетной записи, если её транзакция откатилась из-за взаимоблокировки
+     * или нарушения внешнего ключа (студент или курс удалены во время порции).
+     */
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepository userRepository;
     private final CourseRepository courseRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EnrollmentIndex enrollmentIndex;
+    private final SeatAvailability seatAvailability;
+    private final EnrollmentMetrics metrics;
+    private final CatalogVersions catalogVersions;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     public EnrollmentService(
             EnrollmentRepository enrollmentRepository,
             UserRepository userRepository,
-            CourseRepository courseRepository
+            CourseRepository courseRepository,
+            OutboxEventRepository outboxEventRepository,
+            EnrollmentIndex enrollmentIndex,
+            SeatAvailability seatAvailability,
+            EnrollmentMetrics metrics,
+            CatalogVersions catalogVersions,
+            ReadYourWrites readYourWrites,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.enrollment.batch.chunk-size:1000}") int batchChunkSize
     ) {
         this.enrollmentRepository = enrollmentRepository;
         this.userRepository = userRepository;
         this.courseRepository = courseRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.enrollmentIndex = enrollmentIndex;
+        this.seatAvailability = seatAvailability;
+        this.metrics = metrics;
+        this.catalogVersions = catalogVersions;
+        this.readYourWrites = readYourWrites;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchChunkSize = batchChunkSize;
     }
 
     /**
      * Записывает студента на курс.
+     * <p>
+     * В успешном сценарии выполняется одно SQL-выражение: условная вставка, которая сама проверяет
+     * существование студента и курса и отсутствие дубля. Дополнительные запросы делаются только
+     * при отказе, чтобы сообщить клиенту точную причину. {@link EnrollmentIndex} — только подсказка:
+     * найденная в нём запись перед ответом 409 проверяется в БД, потому что её могли удалить
+     * в обход этого экземпляра.
+     * <p>
+     * Место на курсе занимается условным UPDATE счётчика уже после вставки: строка курса блокируется
+     * только до коммита. Если мест нет, транзакция откатывается вместе со вставкой. Последним выражением
+     * добавляется событие в outbox — под блокировкой строки курса, чтобы события курса шли в порядке фиксации.
      *
      * @param studentId идентификатор студента
      * @param courseId  идентификатор курса
-     * @return созданная запись {@link Enrollment}
-     * @throws EntityNotFoundException если студент или курс не найдены
-     * @throws IllegalStateException   если студент уже записан на курс
+     * @return DTO созданной записи
+     * @throws EnrollmentNotFoundException если студент или курс не найдены
+     * @throws AlreadyEnrolledException    если студент уже записан на курс
+     * @throws IllegalStateException       если на курсе нет мест
      */
     @Transactional
-    public Enrollment enroll(Long studentId, Long courseId) {
-        if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
-            throw new IllegalStateException("Student is already enrolled to this course.");
+    public EnrollmentResponse enroll(Long studentId, Long courseId) {
+        if (enrollmentIndex.isReady() && enrollmentIndex.contains(studentId, courseId)) {
+            if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+                throw alreadyEnrolled();
+            }
+            enrollmentIndex.correct(studentId, courseId, false);
+        }
+        if (seatAvailability.isKnownFull(courseId)) {
+            throw courseFull(courseId);
+        }
+
+        Optional<Long> id;
+        try {
+            id = enrollmentRepository.insertIfAbsent(studentId, courseId);
+        } catch (DuplicateKeyException e) {
+            // Параллельная вставка той же пары, которую БД отклонила по uk_enrollment_student_course
+            throw alreadyEnrolled();
+        } catch (DataIntegrityViolationException e) {
+            // Студент или курс удалены между проверкой в INSERT ... SELECT и проверкой внешнего ключа
+            throw notFound("Student or course not found: student=" + studentId + ", course=" + courseId);
+        }
+
+        if (id.isEmpty()) {
+            throw rejectionReason(studentId, courseId);
+        }
+        if (!courseRepository.tryTakeSeat(courseId)) {
+            seatAvailability.markFull(courseId);
+            throw courseFull(courseId);
+        }
+        outboxEventRepository.append(EnrollmentEventType.ENROLLED, studentId, courseId);
+        enrollmentIndex.onEnrolled(studentId, courseId);
+        catalogVersions.rosterChanged(courseId);
+        readYourWrites.enrollmentChanged(studentId, courseId);
+        metrics.recordSingle(EnrollmentMetrics.Outcome.CREATED);
+        return new EnrollmentResponse(id.get(), studentId, courseId);
+    }
+
+    /**
+     * Определяет, почему условная вставка не создала запись. Вызывается только на пути ошибки.
+     */
+    private RuntimeException rejectionReason(Long studentId, Long courseId) {
+        if (!userRepository.existsById(studentId)) {
+            return notFound("Student not found: " + studentId);
+        }
+        if (!courseRepository.existsById(courseId)) {
+            return notFound("Course not found: " + courseId);
         }
+        enrollmentIndex.correct(studentId, courseId, true);
+        return alreadyEnrolled();
+    }
 
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new EntityNotFoundException("Student not found: " + studentId));
+    // Фабрики ошибок записи: заодно учитывают исход в метриках lms.enrollments
 
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new EntityNotFoundException("Course not found: " + courseId));
+    private AlreadyEnrolledException alreadyEnrolled() {
+        metrics.recordSingle(EnrollmentMetrics.Outcome.DUPLICATE);
+        return new AlreadyEnrolledException();
+    }
+
+    private EnrollmentNotFoundException notFound(String message) {
+        metrics.recordSingle(EnrollmentMetrics.Outcome.NOT_FOUND);
+        return new EnrollmentNotFoundException(message);
+    }
 
-        Enrollment enrollment = new Enrollment(student, course);
-        return enrollmentRepository.save(enrollment);
+    private IllegalStateException courseFull(Long courseId) {
+        metrics.recordSingle(EnrollmentMetrics.Outcome.COURSE_FULL);
+        return new IllegalStateException("Course is full: " + courseId);
+    }
+
+    /**
+     * Пакетно записывает студентов на курсы.
+     * <p>
+     * Пары обрабатываются порциями по {@code app.enrollment.batch.chunk-size}: каждая порция —
+     * отдельная транзакция и один JDBC-батч условных вставок, за которым следует один батч занятия мест.
+     * Ошибочные пары (дубль, нет студента или курса, нет мест) не прерывают обработку,
+     * а попадают в результат со своим статусом.
+     * <p>
+     * Вставки порции идут в порядке ключа {@code (student_id, course_id)}, поэтому пересекающиеся параллельные
+     * порции ждут друг друга в одном порядке и не взаимоблокируются. Если транзакцию порции всё же откатила
+     * взаимоблокировка или внешний ключ (студента или курс удалили во время порции), порция выполняется заново:
+     * повторная условная вставка уже не видит удалённую строку и сообщает {@code *_NOT_FOUND}.
+     *
+     * @param items пары student+course
+     * @return итог по каждой паре в порядке запроса
+     */
+    public EnrollmentBatchResponse enrollBatch(List<EnrollmentRequest> items) {
+        long startedAt = System.nanoTime();
+        List<EnrollmentBatchResponse.Item> results = new ArrayList<>(items.size());
+
+        for (int from = 0; from < items.size(); from += batchChunkSize) {
+            List<EnrollmentRequest> chunk = items.subList(from, Math.min(from + batchChunkSize, items.size()));
+            results.addAll(executeChunk(chunk));
+        }
+
+        EnrollmentBatchResponse response = new EnrollmentBatchResponse(results);
+        metrics.recordBatch(EnrollmentMetrics.Outcome.CREATED, response.getCreated());
+        metrics.recordBatch(EnrollmentMetrics.Outcome.DUPLICATE, response.getDuplicates());
+        metrics.recordBatch(EnrollmentMetrics.Outcome.NOT_FOUND, response.getNotFound());
+        metrics.recordBatch(EnrollmentMetrics.Outcome.COURSE_FULL, response.getCourseFull());
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Batch enrollment: {} items in {} ms ({} items/s)",
+                items.size(), elapsedMs, items.size() * 1000L / elapsedMs);
+        return response;
+    }
+
+    private List<EnrollmentBatchResponse.Item> executeChunk(List<EnrollmentRequest> chunk) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> enrollChunk(chunk));
+            } catch (PessimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt == MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Batch enrollment chunk of {} items rolled back ({}), retrying",
+                        chunk.size(), e.getClass().getSimpleName());
+            }
+        }
+    }
+
+    private List<EnrollmentBatchResponse.Item> enrollChunk(List<EnrollmentRequest> chunk) {
+        long[] studentIds = new long[chunk.size()];
+        long[] courseIds = new long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            studentIds[i] = chunk.get(i).getStudentId();
+            courseIds[i] = chunk.get(i).getCourseId();
+        }
+
+        int[] inserted = insertInKeyOrder(studentIds, courseIds);
+        boolean[] full = takeSeats(studentIds, courseIds, inserted);
+        appendEnrolledEvents(studentIds, courseIds, inserted, full);
+
+        // Причину отказа выясняем только для невставленных пар — двумя запросами на всю порцию
+        Set<Long> rejectedStudents = new HashSet<>();
+        Set<Long> rejectedCourses = new HashSet<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] == 0) {
+                rejectedStudents.add(studentIds[i]);
+                rejectedCourses.add(courseIds[i]);
+            }
+        }
+        Set<Long> existingStudents = rejectedStudents.isEmpty()
+                ? Set.of() : new HashSet<>(userRepository.findExistingIds(rejectedStudents));
+        Set<Long> existingCourses = rejectedCourses.isEmpty()
+                ? Set.of() : new HashSet<>(courseRepository.findExistingIds(rejectedCourses));
+
+        Set<Long> changedCourses = new HashSet<>();
+        List<EnrollmentBatchResponse.Item> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < inserted.length; i++) {
+            EnrollmentBatchResponse.Status status;
+            if (full[i]) {
+                status = EnrollmentBatchResponse.Status.COURSE_FULL;
+            } else if (inserted[i] != 0) {
+                status = EnrollmentBatchResponse.Status.CREATED;
+                enrollmentIndex.onEnrolled(studentIds[i], courseIds[i]);
+                readYourWrites.enrollmentChanged(studentIds[i], courseIds[i]);
+                changedCourses.add(courseIds[i]);
+            } else if (!existingStudents.contains(studentIds[i])) {
+                status = EnrollmentBatchResponse.Status.STUDENT_NOT_FOUND;
+            } else if (!existingCourses.contains(courseIds[i])) {
+                status = EnrollmentBatchResponse.Status.COURSE_NOT_FOUND;
+            } else {
+                status = EnrollmentBatchResponse.Status.DUPLICATE;
+            }
+            results.add(new EnrollmentBatchResponse.Item(studentIds[i], courseIds[i], status));
+        }
+        changedCourses.forEach(catalogVersions::rosterChanged);
+        return results;
+    }
+
+    /**
+     * Вставляет пары порции в порядке {@code (student_id, course_id)} — порядке уникального индекса.
+     * Сортировка устойчивая: из повторов одной пары вставляется первый по запросу.
+     *
+     * @return результат вставки для каждой пары в порядке запроса
+     */
+    private int[] insertInKeyOrder(long[] studentIds, long[] courseIds) {
+        List<Integer> order = new ArrayList<>(studentIds.length);
+        for (int i = 0; i < studentIds.length; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingLong(i -> studentIds[i]).thenComparingLong(i -> courseIds[i]));
+
+        long[] sortedStudents = new long[order.size()];
+        long[] sortedCourses = new long[order.size()];
+        for (int k = 0; k < order.size(); k++) {
+            sortedStudents[k] = studentIds[order.get(k)];
+            sortedCourses[k] = courseIds[order.get(k)];
+        }
+        int[] sortedInserted = enrollmentRepository.insertIfAbsentBatch(sortedStudents, sortedCourses);
+
+        int[] inserted = new int[sortedInserted.length];
+        for (int k = 0; k < order.size(); k++) {
+            inserted[order.get(k)] = sortedInserted[k];
+        }
+        return inserted;
+    }
+
+    /**
+     * Добавляет в outbox события о созданных записях порции одним JDBC-батчем, пока строки курсов заблокированы.
+     */
+    private void appendEnrolledEvents(long[] studentIds, long[] courseIds, int[] inserted, boolean[] full) {
+        int created = 0;
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] != 0 && !full[i]) {
+                created++;
+            }
+        }
+        if (created == 0) {
+            return;
+        }
+        long[] eventStudents = new long[created];
+        long[] eventCourses = new long[created];
+        for (int i = 0, k = 0; i < inserted.length; i++) {
+            if (inserted[i] != 0 && !full[i]) {
+                eventStudents[k] = studentIds[i];
+                eventCourses[k++] = courseIds[i];
+            }
+        }
+        outboxEventRepository.appendBatch(EnrollmentEventType.ENROLLED, eventStudents, eventCourses);
+    }
+
+    /**
+     * Занимает места для вставленных пар порции. Курсы обрабатываются в порядке возрастания id,
+     * чтобы параллельные порции блокировали строки курсов в одном порядке и не взаимоблокировались.
+     * Записи, которым не хватило места, удаляются в той же транзакции.
+     *
+     * @return для каждой пары порции: {@code true}, если запись отклонена из-за отсутствия мест
+     */
+    private boolean[] takeSeats(long[] studentIds, long[] courseIds, int[] inserted) {
+        boolean[] full = new boolean[inserted.length];
+        List<Integer> created = new ArrayList<>();
+        for (int i = 0; i < inserted.length; i++) {
+            if (inserted[i] != 0) {
+                created.add(i);
+            }
+        }
+        if (created.isEmpty()) {
+            return full;
+        }
+        created.sort(Comparator.comparingLong(i -> courseIds[i]));
+
+        long[] seatCourseIds = new long[created.size()];
+        for (int k = 0; k < created.size(); k++) {
+            seatCourseIds[k] = courseIds[created.get(k)];
+        }
+        int[] taken = courseRepository.tryTakeSeats(seatCourseIds);
+
+        List<Integer> rejected = new ArrayList<>();
+        for (int k = 0; k < taken.length; k++) {
+            if (taken[k] == 0) {
+                int i = created.get(k);
+                full[i] = true;
+                rejected.add(i);
+                seatAvailability.markFull(courseIds[i]);
+            }
+        }
+        if (!rejected.isEmpty()) {
+            long[] rejectedStudents = new long[rejected.size()];
+            long[] rejectedCourses = new long[rejected.size()];
+            for (int k = 0; k < rejected.size(); k++) {
+                rejectedStudents[k] = studentIds[rejected.get(k)];
+                rejectedCourses[k] = courseIds[rejected.get(k)];
+            }
+            enrollmentRepository.deleteBatch(rejectedStudents, rejectedCourses);
+        }
+        return full;
     }
 
     /**
      * Отписывает студента от курса (удаляет запись).
+     * Наличие записи определяет само удаление в БД, а не {@link EnrollmentIndex}: запись могла появиться
+     * в обход этого экземпляра.
      *
      * @param studentId идентификатор студента
      * @param courseId  идентификатор курса
-     * @throws EntityNotFoundException если запись enrollment не найдена
+     * @throws EnrollmentNotFoundException если запись enrollment не найдена
      */
     @Transactional
     public void unenroll(Long studentId, Long courseId) {
-        Enrollment enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Enrollment not found for student=" + studentId + " and course=" + courseId
-                ));
+        int deleted = enrollmentRepository.deleteByStudentIdAndCourseId(studentId, courseId);
+        if (deleted == 0) {
+            enrollmentIndex.correct(studentId, courseId, false);
+            throw enrollmentNotFound(studentId, courseId);
+        }
+        courseRepository.releaseSeat(courseId);
+        outboxEventRepository.append(EnrollmentEventType.UNENROLLED, studentId, courseId);
+        seatAvailability.markAvailable(courseId);
+        enrollmentIndex.onUnenrolled(studentId, courseId);
+        catalogVersions.rosterChanged(courseId);
+        readYourWrites.enrollmentChanged(studentId, courseId);
+    }
+
+    private static EnrollmentNotFoundException enrollmentNotFound(Long studentId, Long courseId) {
+        return new EnrollmentNotFoundException(
+                "Enrollment not found for student=" + studentId + " and course=" + courseId
+        );
+    }
 
-        enrollmentRepository.delete(enrollment);
+    /**
+     * Возвращает количество студентов курса: из {@link EnrollmentIndex}, если он загружен, иначе запросом.
+     *
+     * @param courseId идентификатор курса
+     * @return количество записей на курс
+     */
+    public long countStudents(Long courseId) {
+        if (enrollmentIndex.isReady()) {
+            return enrollmentIndex.countStudents(courseId);
+        }
+        return enrollmentRepository.countByCourseId(courseId);
+    }
+
+    /**
+     * Возвращает id курсов студента: из {@link EnrollmentIndex}, если он загружен, иначе запросом.
+     *
+     * @param studentId идентификатор студента
+     * @return id курсов в порядке возрастания (может быть пустым)
+     */
+    public List<Long> getCourseIdsOfStudent(Long studentId) {
+        if (enrollmentIndex.isReady()) {
+            return Arrays.stream(enrollmentIndex.courseIdsOf(studentId)).boxed().toList();
+        }
+        return enrollmentRepository.findCourseIdsByStudentId(studentId);
     }
 
     /**
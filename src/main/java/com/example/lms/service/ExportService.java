@@ -0,0 +1,108 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.CourseResponse;
+import com.example.lms.dto.EnrollmentResponse;
+import com.example.lms.dto.UserResponse;
+import com.example.lms.repository.CourseRepository;
+import com.example.lms.repository.EnrollmentRepository;
+import com.example.lms.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка пользователей, курсов и записей в формате NDJSON (один JSON-объект на строку).
+ * <p>
+ * Строки читаются из {@link Stream}-методов репозиториев внутри read-only транзакции
+ * и сразу пишутся в ответ, поэтому потребление памяти не зависит от размера таблиц,
+ * а первые байты уходят клиенту сразу после получения первой порции из БД.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    /**
+     * Как часто (в строках) сбрасывать буфер в ответ.
+     */
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ExportService(
+            UserRepository userRepository,
+            CourseRepository courseRepository,
+            EnrollmentRepository enrollmentRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.userRepository = userRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportUsers() {
+        return out -> writeNdjson(out, "users", UserResponse.class, userRepository::streamAllForExport);
+    }
+
+    public StreamingResponseBody exportCourses() {
+        return out -> writeNdjson(out, "courses", CourseResponse.class, courseRepository::streamAllForExport);
+    }
+
+    public StreamingResponseBody exportEnrollments() {
+        return out -> writeNdjson(out, "enrollments", EnrollmentResponse.class, enrollmentRepository::streamAllForExport);
+    }
+
+    /**
+     * Пишет строки потока в {@code out} по одной на строку.
+     * Транзакция открывается здесь, а не в контроллере: тело ответа пишется уже после выхода из него.
+     */
+    private <T> void writeNdjson(OutputStream out, String name, Class<T> type, Supplier<Stream<T>> source) {
+        ObjectWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long startedAt = System.nanoTime();
+
+        long rows = readOnlyTx.execute(status -> {
+            long count = 0;
+            try (Stream<T> stream = source.get()) {
+                JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+                gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                gen.setRootValueSeparator(null);
+
+                for (T row : (Iterable<T>) stream::iterator) {
+                    writer.writeValue(gen, row);
+                    gen.writeRaw('\n');
+                    if (++count == 1 || count % FLUSH_EVERY_ROWS == 0) {
+                        gen.flush();
+                    }
+                }
+                gen.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Export of " + name + " failed", e);
+            }
+            return count;
+        });
+
+        log.info("Exported {} {} in {} ms", rows, name, (System.nanoTime() - startedAt) / 1_000_000);
+    }
+}
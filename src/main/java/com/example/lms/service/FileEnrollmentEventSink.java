@@ -0,0 +1,62 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.EnrollmentEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Дописывает события в локальный NDJSON-файл ({@code app.outbox.file.path}), по объекту на строку.
+ * Порция записывается одним вызовом и сбрасывается на диск ({@code fsync}) до того, как события
+ * будут удалены из outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileEnrollmentEventSink implements EnrollmentEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(FileEnrollmentEventSink.class);
+
+    private final Path path;
+    private final ObjectWriter writer;
+
+    public FileEnrollmentEventSink(
+            @Value("${app.outbox.file.path:enrollment-events.ndjson}") Path path,
+            ObjectMapper objectMapper
+    ) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        Files.createDirectories(this.path.getParent());
+        log.info("Enrollment events are appended to {}", this.path);
+    }
+
+    @Override
+    public synchronized void publish(List<EnrollmentEvent> events) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 128);
+        for (EnrollmentEvent event : events) {
+            writer.writeValue(buffer, event);
+            buffer.write('\n');
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
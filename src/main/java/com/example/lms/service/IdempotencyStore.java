@@ -0,0 +1,183 @@
+package com.example.lms.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Идемпотентность записей по заголовку {@code Idempotency-Key}: повтор запроса с тем же ключом получает
+ * результат первого запроса из памяти, без повторной транзакции.
+ * <p>
+ * Ключи хранятся в Caffeine-кэше, ограниченном по размеру ({@code app.enrollment.idempotency.max-keys}) и по времени
+ * жизни ({@code app.enrollment.idempotency.ttl}). Ключ действует в пределах операции и студента: одинаковые ключи
+ * разных студентов не пересекаются. Запоминается успешный результат и окончательный отказ ({@link EnrollmentRejection}:
+ * 404, 409 «уже записан»): повтор получает тот же ответ, а не 409 «уже записан» от собственной первой попытки.
+ * Отказ хранится как неизменяемый снимок — статус и сообщение, и каждый повтор получает новое исключение
+ * с тем же ответом. Остальные ошибки (курс заполнен, 429/503 допуска, ошибки БД и фреймворка) не запоминаются —
+ * ключ освобождается, и следующий повтор выполняется заново.
+ * <p>
+ * Одновременные запросы с одним ключом не выполняются параллельно: первый выполняет действие, остальные ждут
+ * его результат не дольше {@code app.enrollment.idempotency.wait-timeout}, затем получают 409. Если первый запрос
+ * завершился временной ошибкой, ждущий выполняет действие сам. Ключ с другим телом запроса — 422.
+ */
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final boolean enabled;
+    private final long waitTimeoutNanos;
+    private final Cache<String, Entry> entries;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+
+    public IdempotencyStore(
+            @Value("${app.enrollment.idempotency.enabled:true}") boolean enabled,
+            @Value("${app.enrollment.idempotency.max-keys:100000}") long maxKeys,
+            @Value("${app.enrollment.idempotency.ttl:1h}") Duration ttl,
+            @Value("${app.enrollment.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+
+        this.executed = outcome(meterRegistry, "executed");
+        this.replayed = outcome(meterRegistry, "replayed");
+        this.mismatched = outcome(meterRegistry, "mismatched");
+        Gauge.builder("lms.idempotency.keys", entries, Cache::estimatedSize)
+                .description("Idempotency keys currently remembered")
+                .register(meterRegistry);
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("lms.idempotency")
+                .description("Requests with an Idempotency-Key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняет действие не больше одного раза для ключа.
+     *
+     * @param operation   операция (ключи разных операций не пересекаются)
+     * @param studentId   студент, от имени которого выполняется запрос (ключи разных студентов не пересекаются)
+     * @param key         значение {@code Idempotency-Key}; {@code null} — действие выполняется как обычно
+     * @param fingerprint содержимое запроса; повтор с тем же ключом должен его совпадать
+     * @param action      действие
+     * @return результат действия — собственный или первого запроса с этим ключом
+     * @throws ResponseStatusException 400 — некорректный ключ, 422 — ключ уже использован с другим запросом,
+     *                                 409 — запрос с этим ключом ещё выполняется дольше {@code wait-timeout};
+     *                                 повтор окончательного отказа — с его статусом и сообщением
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, long studentId, String key, Object fingerprint, Supplier<T> action) {
+        if (!enabled || key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1.." + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = operation + ':' + studentId + ':' + key;
+        while (true) {
+            Entry entry = new Entry(fingerprint);
+            Entry existing = entries.asMap().putIfAbsent(cacheKey, entry);
+            if (existing == null) {
+                return run(cacheKey, entry, action);
+            }
+            Outcome outcome = await(existing, fingerprint);
+            if (outcome != Outcome.RELEASED) {
+                replayed.increment();
+                return (T) outcome.replay();
+            }
+        }
+    }
+
+    private <T> T run(String cacheKey, Entry entry, Supplier<T> action) {
+        executed.increment();
+        try {
+            T value = action.get();
+            entry.outcome.complete(new Outcome(value, null, null));
+            return value;
+        } catch (RuntimeException | Error e) {
+            if (e instanceof EnrollmentRejection rejection) {
+                entry.outcome.complete(new Outcome(null, rejection.status(), rejection.getMessage()));
+            } else {
+                entries.asMap().remove(cacheKey, entry);
+                entry.outcome.complete(Outcome.RELEASED);
+            }
+            throw e;
+        }
+    }
+
+    private Outcome await(Entry existing, Object fingerprint) {
+        if (!Objects.equals(existing.fingerprint, fingerprint)) {
+            mismatched.increment();
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request");
+        }
+        try {
+            return existing.outcome.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Idempotent outcome failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted", e);
+        }
+    }
+
+    /**
+     * Запрос с ключом: содержимое и исход (ещё не готов, пока первый запрос выполняется).
+     */
+    private static final class Entry {
+
+        private final Object fingerprint;
+        private final CompletableFuture<Outcome> outcome = new CompletableFuture<>();
+
+        Entry(Object fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Запомненный исход: результат или, если {@code status} задан, окончательный отказ.
+     * {@link #RELEASED} — первый запрос завершился временной ошибкой, ключ освобождён.
+     */
+    private record Outcome(Object value, HttpStatus status, String message) {
+
+        static final Outcome RELEASED = new Outcome(null, null, null);
+
+        Object replay() {
+            if (status != null) {
+                throw new ResponseStatusException(status, message);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.EnrollmentEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накапливает доставленные события в памяти. Предназначен для тестов и локальной отладки:
+ * список не ограничен и не переживает перезапуск.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryEnrollmentEventSink implements EnrollmentEventSink {
+
+    private final List<EnrollmentEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<EnrollmentEvent> batch) {
+        events.addAll(batch);
+    }
+
+    /**
+     * @return копия доставленных событий в порядке доставки
+     */
+    public synchronized List<EnrollmentEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.lms.service;
+
+import com.example.lms.dto.EnrollmentEvent;
+import com.example.lms.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Фоновая публикация событий о записях на курсы из outbox-таблицы в {@link EnrollmentEventSink}.
+ * <p>
+ * Каждые {@code app.outbox.publisher.interval} outbox вычитывается порциями по {@code app.outbox.publisher.batch-size}.
+ * Порция блокируется ({@code FOR UPDATE}), передаётся получателю и удаляется в одной транзакции. Если получатель
+ * отказал или транзакция не зафиксировалась, порция остаётся в outbox и будет доставлена снова — доставка
+ * «хотя бы один раз». События выбираются в порядке id, а id событий одного курса возрастают в порядке фиксации,
+ * поэтому для каждого курса порядок событий сохраняется.
+ * <p>
+ * Метрики: {@code lms.outbox.published} (доставленные события), {@code lms.outbox.publish} (время доставки порции),
+ * {@code lms.outbox.failures} (неудачные порции), {@code lms.outbox.delay} (время от фиксации события до доставки)
+ * и {@code lms.outbox.lag} (возраст самого старого недоставленного события на момент последней выборки).
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EnrollmentEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final Timer delay;
+    /**
+     * Время создания самого старого недоставленного события (epoch ms); 0 — outbox был пуст.
+     */
+    private final AtomicLong oldestPendingAt = new AtomicLong();
+
+    public OutboxPublisher(
+            OutboxEventRepository outboxEventRepository,
+            EnrollmentEventSink sink,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.outbox.publisher.batch-size:500}") int batchSize,
+            @Value("${app.outbox.publisher.max-batches-per-run:20}") int maxBatchesPerRun
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.published = Counter.builder("lms.outbox.published")
+                .description("Enrollment events delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("lms.outbox.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("lms.outbox.publish")
+                .description("Time to deliver and delete one outbox batch")
+                .register(meterRegistry);
+        this.delay = Timer.builder("lms.outbox.delay")
+                .description("Time from an enrollment event being written to its delivery")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("lms.outbox.lag", this, OutboxPublisher::lagSeconds)
+                .description("Age of the oldest undelivered enrollment event at the last publisher run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.publisher.interval:PT0.5S}")
+    void scheduledRun() {
+        publishPending();
+    }
+
+    /**
+     * Доставляет накопившиеся события: порцию за порцией, пока outbox не опустеет,
+     * но не больше {@code app.outbox.publisher.max-batches-per-run} порций за вызов.
+     *
+     * @return количество доставленных событий
+     */
+    public synchronized int publishPending() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<EnrollmentEvent> delivered;
+            try {
+                delivered = transactionTemplate.execute(status -> deliverBatch());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Outbox batch was not delivered and will be retried: {}", e.toString());
+                break;
+            }
+            recordDelivered(delivered);
+            total += delivered.size();
+            if (delivered.size() < batchSize) {
+                oldestPendingAt.set(0);
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Блокирует самые старые события, передаёт их получателю и удаляет — в транзакции вызывающего.
+     */
+    private List<EnrollmentEvent> deliverBatch() {
+        List<EnrollmentEvent> events = outboxEventRepository.lockOldest(batchSize);
+        if (events.isEmpty()) {
+            return events;
+        }
+        oldestPendingAt.set(events.get(0).getOccurredAt().toEpochMilli());
+
+        publishTimer.record(() -> {
+            try {
+                sink.publish(events);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException("Enrollment event sink failed", e);
+            }
+        });
+        outboxEventRepository.deleteByIds(events.stream().mapToLong(EnrollmentEvent::getId).toArray());
+        return events;
+    }
+
+    private void recordDelivered(List<EnrollmentEvent> events) {
+        Instant now = Instant.now();
+        for (EnrollmentEvent event : events) {
+            delay.record(Duration.between(event.getOccurredAt(), now).toNanos(), TimeUnit.NANOSECONDS);
+        }
+        published.increment(events.size());
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestPendingAt.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
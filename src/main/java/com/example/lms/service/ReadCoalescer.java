@@ -0,0 +1,152 @@
+package com.example.lms.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых чтений (single flight).
+ * <p>
+ * Первый запрос с данным ключом выполняет загрузку, остальные запросы с тем же ключом, пришедшие до её
+ * окончания, ждут и получают тот же результат или то же исключение. В течение {@code app.read-coalescing.window}
+ * после окончания загрузки результат отдаётся новым запросам без повторной загрузки; ошибки не переиспользуются.
+ * <p>
+ * Ключ должен однозначно определять версию данных — например, включать ETag из {@link CatalogVersions}:
+ * после изменения ключ меняется, поэтому окно не отдаёт данные старее версии, которую видел запрос.
+ */
+@Component
+public class ReadCoalescer {
+
+    /**
+     * При таком числе ключей завершённые загрузки с истёкшим окном удаляются при следующей загрузке.
+     */
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final boolean enabled;
+    private final long windowNanos;
+    private final Map<String, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    private final Counter executed;
+    private final Counter shared;
+
+    public ReadCoalescer(
+            @Value("${app.read-coalescing.enabled:true}") boolean enabled,
+            @Value("${app.read-coalescing.window:100ms}") Duration window,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.executed = outcome(meterRegistry, "executed");
+        this.shared = outcome(meterRegistry, "shared");
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("lms.read.coalescing")
+                .description("Coalesced reads: executed loads and requests that shared another request's result")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Возвращает результат загрузки по ключу, выполняя её не больше одного раза для одновременных запросов.
+     *
+     * @param key    ключ чтения (вид ресурса, параметры и версия)
+     * @param loader загрузка; исключение загрузки получат все ожидавшие её запросы
+     * @return результат загрузки
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        while (true) {
+            Flight<T> current = (Flight<T>) flights.get(key);
+            if (current != null) {
+                if (current.isReusable(System.nanoTime(), windowNanos)) {
+                    shared.increment();
+                    return current.join();
+                }
+                flights.remove(key, current);
+                continue;
+            }
+            Flight<T> flight = new Flight<>();
+            if (flights.putIfAbsent(key, flight) == null) {
+                return load(key, flight, loader);
+            }
+        }
+    }
+
+    private <T> T load(String key, Flight<T> flight, Supplier<T> loader) {
+        executed.increment();
+        if (flights.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            flights.values().removeIf(f -> f.isDone() && !f.isReusable(now, windowNanos));
+        }
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            if (windowNanos <= 0) {
+                flights.remove(key, flight);
+            }
+            return value;
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Загрузка по ключу: результат и момент окончания.
+     */
+    private static final class Flight<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        void complete(T value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+
+        boolean isDone() {
+            return result.isDone();
+        }
+
+        /**
+         * Ещё выполняется или завершилась успешно не раньше чем {@code window} назад.
+         */
+        boolean isReusable(long now, long window) {
+            if (!result.isDone()) {
+                return true;
+            }
+            return !result.isCompletedExceptionally() && now - completedAt < window;
+        }
+
+        T join() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.lms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Окно read-your-writes для режима с репликой чтения.
+ * <p>
+ * Реплика отстаёт от основной БД, поэтому студент, только что записавшийся на курс или отписавшийся,
+ * мог бы не увидеть своё изменение. После фиксации записи/отписки студент и курс отмечаются на
+ * {@code app.datasource.replica.read-your-writes}: чтения о них в этот период идут в основную БД
+ * (см. {@link com.example.lms.config.ReadYourWritesFilter}).
+ * <p>
+ * Так же отмечаются созданные, изменённые и удалённые курсы и пользователи ({@link CourseService},
+ * {@link UserService}). Это важнее, чем для записей: после сброса записи в кэше первое чтение снова заполняет
+ * кэш, и строка, прочитанная из отстающей реплики, отдавалась бы до истечения TTL кэша.
+ * <p>
+ * Отметки хранятся так же, как в {@link SeatAvailability}: срок по id в {@link ConcurrentHashMap}.
+ * Без настроенной реплики отметки не ставятся.
+ */
+@Component
+public class ReadYourWrites {
+
+    /**
+     * При таком числе отметок истёкшие удаляются при следующей записи.
+     */
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final Map<Long, Long> usersUntil = new ConcurrentHashMap<>();
+    private final Map<Long, Long> coursesUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWrites(
+            @Value("${app.datasource.replica.url:}") String replicaUrl,
+            @Value("${app.datasource.replica.read-your-writes:2s}") Duration window
+    ) {
+        this.windowNanos = replicaUrl.isBlank() ? 0 : window.toNanos();
+    }
+
+    /**
+     * Регистрирует запись или отписку студента; окно отсчитывается от фиксации транзакции.
+     */
+    public void enrollmentChanged(long studentId, long courseId) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            long until = System.nanoTime() + windowNanos;
+            mark(usersUntil, studentId, until);
+            mark(coursesUntil, courseId, until);
+        });
+    }
+
+    /**
+     * Регистрирует создание, изменение или удаление курса; окно отсчитывается от фиксации транзакции.
+     */
+    public void courseChanged(long courseId) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> mark(coursesUntil, courseId, System.nanoTime() + windowNanos));
+    }
+
+    /**
+     * Регистрирует создание или изменение пользователя; окно отсчитывается от фиксации транзакции.
+     */
+    public void userChanged(long userId) {
+        if (windowNanos <= 0) {
+            return;
+        }
+        AfterCommit.run(() -> mark(usersUntil, userId, System.nanoTime() + windowNanos));
+    }
+
+    /**
+     * @return {@code true}, если пользователь или его записи недавно менялись и чтения о нём должны идти
+     * в основную БД
+     */
+    public boolean isUserPinned(long userId) {
+        return isPinned(usersUntil, userId);
+    }
+
+    /**
+     * @return {@code true}, если курс или его состав недавно менялись и чтения о нём должны идти в основную БД
+     */
+    public boolean isCoursePinned(long courseId) {
+        return isPinned(coursesUntil, courseId);
+    }
+
+    private static void mark(Map<Long, Long> marks, long id, long until) {
+        if (marks.size() >= SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            marks.values().removeIf(deadline -> now - deadline >= 0);
+        }
+        marks.merge(id, until, Math::max);
+    }
+
+    private static boolean isPinned(Map<Long, Long> marks, long id) {
+        Long until = marks.get(id);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            marks.remove(id, until);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.lms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process отметки «курс заполнен» для быстрого отказа без обращения к БД.
+ * <p>
+ * Источник истины — условный UPDATE счётчика мест в БД ({@link com.example.lms.repository.CourseRepositoryCustom}).
+ * Когда он отказал, курс помечается заполненным на {@code app.enrollment.capacity.full-ttl}: повторные попытки
+ * записаться в этот период отклоняются сразу, не занимая соединение и не ожидая блокировку строки курса.
+ * Отписка на этом экземпляре снимает отметку после коммита (место освобождено в БД), на других — по истечении TTL.
+ * <p>
+ * Отметки хранятся по курсам в {@link ConcurrentHashMap}, общей блокировки нет.
+ */
+@Component
+public class SeatAvailability {
+
+    private final long fullTtlNanos;
+    private final Map<Long, Long> fullUntil = new ConcurrentHashMap<>();
+    private final LongAdder fastRejects = new LongAdder();
+
+    public SeatAvailability(@Value("${app.enrollment.capacity.full-ttl:2s}") Duration fullTtl) {
+        this.fullTtlNanos = fullTtl.toNanos();
+    }
+
+    /**
+     * @return {@code true}, если курс недавно оказался заполненным и отметка ещё действует
+     */
+    public boolean isKnownFull(long courseId) {
+        Long until = fullUntil.get(courseId);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until >= 0) {
+            fullUntil.remove(courseId, until);
+            return false;
+        }
+        fastRejects.increment();
+        return true;
+    }
+
+    public void markFull(long courseId) {
+        if (fullTtlNanos > 0) {
+            fullUntil.put(courseId, System.nanoTime() + fullTtlNanos);
+        }
+    }
+
+    /**
+     * Снимает отметку после коммита текущей транзакции: до него место в БД ещё занято, а при откате не освобождается.
+     */
+    public void markAvailable(long courseId) {
+        AfterCommit.run(() -> fullUntil.remove(courseId));
+    }
+
+    /**
+     * @return сколько попыток записи отклонено по отметке, без обращения к БД
+     */
+    public long fastRejects() {
+        return fastRejects.sum();
+    }
+}
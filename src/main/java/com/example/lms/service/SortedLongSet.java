@@ -0,0 +1,125 @@
+package com.example.lms.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Компактное множество {@code long} на отсортированном массиве примитивов.
+ * <p>
+ * Проверка принадлежности — двоичный поиск, без упаковки в {@link Long} и без узлов на элемент,
+ * поэтому память — около 8 байт на элемент. Вставка и удаление сдвигают хвост массива,
+ * что приемлемо при редких изменениях и частых чтениях.
+ * <p>
+ * Все методы выполняются под {@link ReentrantLock} экземпляра, а не в {@code synchronized}: ожидание блокировки
+ * не закрепляет виртуальный поток за потоком-носителем.
+ */
+public class SortedLongSet {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Приблизительный размер {@link ReentrantLock} вместе с его {@code Sync}.
+     */
+    private static final int LOCK_BYTES = 48;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @return {@code true}, если значение добавлено (его не было)
+     */
+    public boolean add(long value) {
+        lock.lock();
+        try {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true}, если значение удалено (оно было)
+     */
+    public boolean remove(long value) {
+        lock.lock();
+        try {
+            int index = Arrays.binarySearch(values, 0, size, value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean contains(long value) {
+        lock.lock();
+        try {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return копия элементов в порядке возрастания
+     */
+    public long[] toArray() {
+        lock.lock();
+        try {
+            return Arrays.copyOf(values, size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сжимает массив до фактического размера (после массовой загрузки).
+     */
+    public void trimToSize() {
+        lock.lock();
+        try {
+            if (values.length > size) {
+                values = Arrays.copyOf(values, Math.max(size, 1));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return приблизительный размер в байтах: объект, блокировка, заголовок массива и его ёмкость
+     */
+    public long estimatedBytes() {
+        lock.lock();
+        try {
+            return 24 + LOCK_BYTES + 16 + 8L * values.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
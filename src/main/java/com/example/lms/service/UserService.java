@@ -1,10 +1,16 @@
 package com.example.lms.service;
 
+import com.example.lms.config.CacheConfig;
+import com.example.lms.dto.UserResponse;
 import com.example.lms.entity.User;
 import com.example.lms.repository.UserRepository;
+import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -19,25 +25,39 @@ public class UserService {
     private static final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
+    private final CatalogVersions catalogVersions;
+    private final ReadYourWrites readYourWrites;
 
     /**
      * Создаёт новый экземпляр сервиса с заданным репозиторием.
      *
-     * @param userRepository репозиторий для доступа к данным Person
+     * @param userRepository  репозиторий для доступа к данным Person
+     * @param catalogVersions версии ростеров, в которые попадают данные пользователей
+     * @param readYourWrites  окно чтения из основной БД после изменения пользователя
      */
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CatalogVersions catalogVersions,
+                       ReadYourWrites readYourWrites) {
         this.userRepository = userRepository;
+        this.catalogVersions = catalogVersions;
+        this.readYourWrites = readYourWrites;
     }
 
     /**
-     * Сохраняет нового пользователя в базе данных.
+     * Сохраняет пользователя в базе данных и сбрасывает его запись в кэше {@link CacheConfig#USERS}.
+     * В окне {@link ReadYourWrites} чтения пользователя идут в основную БД, поэтому кэш заново заполняется
+     * не из отстающей реплики.
      *
      * @param user сущность пользователя
      * @return сохранённая сущность с заполненным идентификатором
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id")
+    @Transactional
     public User create(User user) {
         log.info("Creating new user with email={}", user.getEmail());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        catalogVersions.userChanged();
+        readYourWrites.userChanged(saved.getId());
+        return saved;
     }
 
     /**
@@ -50,4 +70,20 @@ public class UserService {
         log.info("Searching for user with id={}", id);
         return userRepository.findById(id);
     }
+
+    /**
+     * Возвращает DTO пользователя по идентификатору; повторные запросы обслуживаются из кэша.
+     *
+     * @param id идентификатор пользователя
+     * @return DTO пользователя
+     * @throws EntityNotFoundException если пользователь не найден (отсутствие не кэшируется)
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id")
+    @Transactional(readOnly = true)
+    public UserResponse getById(Long id) {
+        log.debug("User cache miss, loading user id={}", id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User not found: " + id));
+        return UserResponse.from(user);
+    }
 }
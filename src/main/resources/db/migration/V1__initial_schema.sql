@@ -0,0 +1,53 @@
+-- Исходная схема: то, что раньше создавал Hibernate (ddl-auto: create) по сущностям.
+-- Скрипт переносим между PostgreSQL и H2 в режиме PostgreSQL (профиль test).
+
+-- Шаг 50 совпадает с allocationSize генераторов id (pooled-lo, см. AbstractEntity)
+create sequence users_seq start with 1 increment by 50;
+create sequence courses_seq start with 1 increment by 50;
+create sequence enrollments_seq start with 1 increment by 50;
+create sequence enrollment_outbox_seq start with 1 increment by 50;
+
+create table users (
+    id         bigint default nextval('users_seq') not null,
+    first_name varchar(100) not null,
+    last_name  varchar(100) not null,
+    email      varchar(255) not null,
+    role       varchar(32)  not null,
+    status     varchar(32)  not null,
+    constraint pk_users primary key (id),
+    constraint uc_user_email unique (email),
+    constraint ck_users_role check (role in ('ADMIN', 'STUDENT', 'TEACHER')),
+    constraint ck_users_status check (status in ('ACTIVE', 'BLOCKED', 'INACTIVE'))
+);
+
+create table courses (
+    id             bigint default nextval('courses_seq') not null,
+    title          varchar(255) not null,
+    description    varchar(2000),
+    duration       integer,
+    start_date     date,
+    capacity       integer,
+    enrolled_count integer default 0 not null,
+    constraint pk_courses primary key (id)
+);
+
+create table enrollments (
+    id         bigint default nextval('enrollments_seq') not null,
+    student_id bigint not null,
+    course_id  bigint not null,
+    constraint pk_enrollments primary key (id),
+    constraint uk_enrollment_student_course unique (student_id, course_id),
+    constraint fk_enrollments_student foreign key (student_id) references users (id),
+    constraint fk_enrollments_course foreign key (course_id) references courses (id)
+);
+
+-- Без внешних ключей: событие переживает удаление студента или курса
+create table enrollment_outbox (
+    id         bigint default nextval('enrollment_outbox_seq') not null,
+    event_type varchar(32) not null,
+    student_id bigint not null,
+    course_id  bigint not null,
+    created_at timestamp(6) with time zone not null,
+    constraint pk_enrollment_outbox primary key (id),
+    constraint ck_enrollment_outbox_event_type check (event_type in ('ENROLLED', 'UNENROLLED'))
+);
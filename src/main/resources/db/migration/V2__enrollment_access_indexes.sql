@@ -0,0 +1,12 @@
+-- Индексы под запросы EnrollmentRepository.
+--
+-- Со стороны студента достаточно uk_enrollment_student_course (student_id, course_id): по нему идут проверка
+-- и удаление пары, курсы студента (findCourseIdsByStudentId — только из индекса) и записи студента.
+--
+-- Со стороны курса индекса не было: ростер, записи курса, количество студентов курса и сверка счётчиков мест
+-- читали всю таблицу. Индекс (course_id, student_id, id) содержит все колонки enrollments:
+--   - ростер (course_id = ? and student_id > ? order by student_id) — диапазон индекса уже в нужном порядке;
+--   - findAllByCourseId, countByCourseId и подсчёт по диапазону course_id — без обращения к таблице.
+-- На PostgreSQL он же обслуживает внешний ключ fk_enrollments_course: удаление курса не сканирует enrollments.
+create index ix_enrollments_course_student on enrollments (course_id, student_id, id);
+
@@ -0,0 +1,75 @@
+package com.example.lms.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Модульные тесты разбора CSV.
+ */
+class CsvReaderTest {
+
+    @Test
+    void next_shouldTrimUnquotedFieldsAndSkipBlankLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("id , name\n\n 1 ,  Alice Smith \r\n2,Bob\r"));
+
+        assertThat(csv.next()).isTrue();
+        assertThat(csv.getString(0)).isEqualTo("id");
+        assertThat(csv.getString(1)).isEqualTo("name");
+
+        assertThat(csv.next()).isTrue();
+        assertThat(csv.getLong(0)).isEqualTo(1L);
+        assertThat(csv.getString(1)).isEqualTo("Alice Smith");
+        assertThat(csv.lineNumber()).isEqualTo(3);
+
+        assertThat(csv.next()).isTrue();
+        assertThat(csv.getLong(0)).isEqualTo(2L);
+        assertThat(csv.getString(1)).isEqualTo("Bob");
+
+        assertThat(csv.next()).isFalse();
+    }
+
+    @Test
+    void next_shouldHandleQuotedFieldsWithSeparatorsQuotesAndNewlines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "7,\"Java, advanced\",\"He said \"\"hi\"\"\",\"line1\nline2\" ,\n8,\"\",x\n"));
+
+        assertThat(csv.next()).isTrue();
+        assertThat(csv.fieldCount()).isEqualTo(5);
+        assertThat(csv.getString(1)).isEqualTo("Java, advanced");
+        assertThat(csv.getString(2)).isEqualTo("He said \"hi\"");
+        assertThat(csv.getString(3)).isEqualTo("line1\nline2");
+        assertThat(csv.isEmpty(4)).isTrue();
+
+        assertThat(csv.next()).isTrue();
+        assertThat(csv.lineNumber()).isEqualTo(3);
+        assertThat(csv.getString(1)).isEmpty();
+        assertThat(csv.getString(2)).isEqualTo("x");
+
+        assertThat(csv.next()).isFalse();
+    }
+
+    @Test
+    void getLong_shouldRejectNonNumericField() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("12a,-5\n"));
+        csv.next();
+
+        assertThat(csv.getLong(1)).isEqualTo(-5L);
+        assertThatThrownBy(() -> csv.getLong(0))
+                .isInstanceOf(NumberFormatException.class)
+                .hasMessageContaining("line 1");
+    }
+
+    @Test
+    void next_shouldFailOnUnterminatedQuote() {
+        CsvReader csv = new CsvReader(new StringReader("1,\"open\n"));
+
+        assertThatThrownBy(csv::next)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unterminated");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.lms.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Модульные тесты принятия существующей схемы под Flyway на отдельных базах H2.
+ */
+class FlywayConfigTest {
+
+    @Test
+    void migrate_shouldAdoptSchemaMatchingV1AndApplyLaterMigrations() {
+        DataSource dataSource = newDatabase();
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__initial_schema.sql")).execute(dataSource);
+
+        FlywayConfig.migrate(flyway(dataSource));
+
+        assertThat(Arrays.stream(flyway(dataSource).info().applied()).map(MigrationInfo::getVersion).map(String::valueOf))
+                .containsExactly("1", "2");
+        assertThat(Arrays.stream(flyway(dataSource).info().applied()).map(MigrationInfo::getType).map(String::valueOf))
+                .startsWith("BASELINE");
+    }
+
+    @Test
+    void migrate_shouldRefuseToAdoptSchemaThatDiffersFromV1() {
+        DataSource dataSource = newDatabase();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table users (id bigint primary key, email varchar(255))");
+        jdbc.execute("create table enrollments (id bigint primary key, student_id bigint, course_id bigint)");
+
+        assertThatThrownBy(() -> FlywayConfig.migrate(flyway(dataSource)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("missing column users.first_name")
+                .hasMessageContaining("missing table courses")
+                .hasMessageContaining("missing unique index on enrollments");
+        assertThat(flyway(dataSource).info().applied()).isEmpty();
+    }
+
+    @Test
+    void migrate_shouldMigrateEmptyDatabaseAsUsual() {
+        DataSource dataSource = newDatabase();
+
+        FlywayConfig.migrate(flyway(dataSource));
+
+        assertThat(Arrays.stream(flyway(dataSource).info().applied()).map(MigrationInfo::getType).map(String::valueOf))
+                .containsOnly("SQL");
+        assertThat(flyway(dataSource).info().applied()).hasSize(2);
+    }
+
+    private static DataSource newDatabase() {
+        return new DriverManagerDataSource("jdbc:h2:mem:flyway_" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false", "sa", "");
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).load();
+    }
+}
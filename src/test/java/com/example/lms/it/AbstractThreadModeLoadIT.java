@@ -0,0 +1,166 @@
+package com.example.lms.it;
+
+import com.example.lms.config.DbConcurrencyLimitFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочное сравнение режимов исполнения запросов (платформенные и виртуальные потоки).
+ * <p>
+ * {@value #CLIENTS} клиентов параллельно записывают разных студентов на курсы ({@code POST /api/enrollments})
+ * и читают ростер курса ({@code GET /api/courses/{id}/students}) через настоящий HTTP.
+ * Пропускная способность и p50/p99 по каждому эндпойнту пишутся в лог; подклассы задают режим.
+ */
+abstract class AbstractThreadModeLoadIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(AbstractThreadModeLoadIT.class);
+
+    static final int CLIENTS = 200;
+    static final int REQUESTS_PER_CLIENT = 5;
+    static final int COURSES = 10;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ObjectProvider<DbConcurrencyLimitFilter> concurrencyLimitFilter;
+
+    /**
+     * @return название режима для лога
+     */
+    abstract String mode();
+
+    /**
+     * @return должен ли в этом режиме работать {@link DbConcurrencyLimitFilter}
+     */
+    abstract boolean concurrencyLimited();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        int students = CLIENTS * REQUESTS_PER_CLIENT;
+        List<Object[]> users = new ArrayList<>(students);
+        for (long id = 1; id <= students; id++) {
+            users.add(new Object[]{id, "Student" + id, "Load", "student" + id + "@load.example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+        for (long id = 1; id <= COURSES; id++) {
+            jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", id, "Course" + id, "Load");
+        }
+    }
+
+    @Test
+    void concurrencyLimitFilter_shouldExistOnlyOnVirtualThreads() {
+        assertThat(concurrencyLimitFilter.getIfAvailable() != null).isEqualTo(concurrencyLimited());
+    }
+
+    @Test
+    void enrollAndReadRosters_underConcurrentClients() throws Exception {
+        int total = CLIENTS * REQUESTS_PER_CLIENT;
+        long[] enrollLatencies = new long[total];
+        long[] rosterLatencies = new long[total];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            int client = c;
+            clients.submit(() -> {
+                start.await();
+                for (int k = 0; k < REQUESTS_PER_CLIENT; k++) {
+                    int i = client * REQUESTS_PER_CLIENT + k;
+                    long studentId = i + 1L;
+                    long courseId = studentId % COURSES + 1;
+
+                    long startedAt = System.nanoTime();
+                    int enrollStatus = send("POST", "/api/enrollments",
+                            "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}");
+                    enrollLatencies[i] = System.nanoTime() - startedAt;
+
+                    startedAt = System.nanoTime();
+                    int rosterStatus = send("GET", "/api/courses/" + courseId + "/students?limit=50", null);
+                    rosterLatencies[i] = System.nanoTime() - startedAt;
+
+                    if (enrollStatus != 201 || rosterStatus != 200) {
+                        failures.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        clients.shutdown();
+        assertThat(clients.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+        long millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+
+        log.info("{} threads, {} clients: {} req/s overall in {} ms", mode(), CLIENTS, 2L * total * 1000 / millis, millis);
+        log.info("{} threads, POST /api/enrollments: p50={} ms, p99={} ms",
+                mode(), percentileMillis(enrollLatencies, 50), percentileMillis(enrollLatencies, 99));
+        log.info("{} threads, GET /api/courses/:id/students: p50={} ms, p99={} ms",
+                mode(), percentileMillis(rosterLatencies, 50), percentileMillis(rosterLatencies, 99));
+
+        assertThat(failures.get()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM enrollments", Long.class)).isEqualTo(total);
+    }
+
+    /**
+     * Блокирующий HTTP-запрос; тело ответа дочитывается, чтобы соединение вернулось в keep-alive пул JDK.
+     */
+    private int send(String method, String path, String json) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestMethod(method);
+        if (json != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        return status;
+    }
+
+    private static double percentileMillis(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1);
+        return sorted[index] / 100_000 / 10.0;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.lms.it;
+
+import com.example.lms.config.BinaryFormatsConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты согласования бинарных форматов ответа (CBOR, Smile) на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BinaryFormatsIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryFormatsIT.class);
+
+    private static final int USERS = 200;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "First" + id, "Last" + id, "user" + id + "@example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Java Basics", "Intro");
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 1L, 1L);
+    }
+
+    @Test
+    void jsonShouldStayDefault() throws Exception {
+        mockMvc.perform(get("/api/courses/1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/courses/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void binaryFormats_shouldCarrySameDataAsJsonInFewerBytes() throws Exception {
+        String url = "/api/users?limit=" + USERS;
+        byte[] json = fetch(url, MediaType.APPLICATION_JSON);
+        byte[] cbor = fetch(url, MediaType.APPLICATION_CBOR);
+        byte[] smile = fetch(url, BinaryFormatsConfig.APPLICATION_SMILE);
+
+        JsonNode expected = new ObjectMapper().readTree(json);
+        assertThat(new CBORMapper().readTree(cbor)).isEqualTo(expected);
+        assertThat(new SmileMapper().readTree(smile)).isEqualTo(expected);
+
+        log.info("Page of {} users: JSON {} B, CBOR {} B, Smile {} B", USERS, json.length, cbor.length, smile.length);
+        assertThat(cbor.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(cbor.length);
+    }
+
+    @Test
+    void rosterAndEnrollment_shouldNegotiateBinaryFormats() throws Exception {
+        byte[] roster = fetch("/api/courses/1/students", MediaType.APPLICATION_CBOR);
+        assertThat(new CBORMapper().readTree(roster).at("/items/0/email").asText()).isEqualTo("user1@example.com");
+
+        byte[] created = mockMvc.perform(post("/api/enrollments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .content("{\"studentId\":2,\"courseId\":1}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new SmileMapper().readTree(created).get("studentId").asLong()).isEqualTo(2);
+    }
+
+    @Test
+    void etag_shouldDifferPerFormat() throws Exception {
+        String jsonTag = mockMvc.perform(get("/api/courses/1").accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborTag = mockMvc.perform(get("/api/courses/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(cborTag).isNotEqualTo(jsonTag);
+        mockMvc.perform(get("/api/courses/1").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/courses/1").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isNotModified());
+    }
+
+    private byte[] fetch(String url, MediaType mediaType) throws Exception {
+        return mockMvc.perform(get(url).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
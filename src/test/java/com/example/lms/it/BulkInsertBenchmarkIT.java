@@ -0,0 +1,121 @@
+package com.example.lms.it;
+
+import com.example.lms.entity.User;
+import com.example.lms.entity.enums.UserRole;
+import com.example.lms.entity.enums.UserStatus;
+import com.example.lms.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк массовой вставки через {@code saveAll}: JDBC-батчи (id из последовательности, batch_size=50)
+ * против вставки по одной строке за round trip (batch_size=1 — так вёл себя IDENTITY).
+ * <p>
+ * Результаты (строк/с и число подготовленных JDBC-выражений) пишутся в лог; проверки гарантируют, что батчинг не отключится незаметно.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BulkInsertBenchmarkIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkInsertBenchmarkIT.class);
+
+    private static final int ROWS = 10_000;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+    }
+
+    @Test
+    void saveAll_withSequenceIdsAndJdbcBatching_shouldUseFarFewerStatements() {
+        // Прогрев JIT и пула соединений, в замер не входит
+        insertUsers("warmup", 2_000, 50);
+        jdbcTemplate.execute("DELETE FROM users");
+
+        Result rowByRow = insertUsers("row", ROWS, 1);
+        Result batched = insertUsers("batch", ROWS, 50);
+
+        log.info("saveAll {} users, batch_size=1:  {} ms, {} rows/s, {} statements",
+                ROWS, rowByRow.millis, rowByRow.rowsPerSecond(), rowByRow.statements);
+        log.info("saveAll {} users, batch_size=50: {} ms, {} rows/s, {} statements",
+                ROWS, batched.millis, batched.rowsPerSecond(), batched.statements);
+
+        assertThat(userRepository.count()).isEqualTo(2L * ROWS);
+        // На блок из 50 строк: одно обращение к последовательности и один JDBC-батч
+        assertThat(batched.statements).isLessThanOrEqualTo(2L * (ROWS / 50) + 2);
+        assertThat(batched.statements).isLessThan(rowByRow.statements / 10);
+    }
+
+    private Result insertUsers(String prefix, int count, int batchSize) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long startedAt = System.nanoTime();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+
+            List<User> users = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                User user = new User();
+                user.setFirstName("First" + i);
+                user.setLastName("Last" + i);
+                user.setEmail(prefix + i + "@bench.example.com");
+                user.setRole(UserRole.STUDENT);
+                user.setStatus(UserStatus.ACTIVE);
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+            entityManager.flush();
+            entityManager.clear();
+        });
+
+        Result result = new Result();
+        result.rows = count;
+        result.millis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+        result.statements = statistics.getPrepareStatementCount();
+        return result;
+    }
+
+    private static final class Result {
+        long rows;
+        long millis;
+        long statements;
+
+        long rowsPerSecond() {
+            return rows * 1000 / millis;
+        }
+    }
+}
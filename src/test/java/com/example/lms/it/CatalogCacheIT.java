@@ -0,0 +1,127 @@
+package com.example.lms.it;
+
+import com.example.lms.config.CacheConfig;
+import com.example.lms.entity.Course;
+import com.example.lms.repository.CourseRepository;
+import com.example.lms.service.CourseService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты кэша карточек курсов и пользователей на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CatalogCacheIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    CourseService courseService;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        jdbcTemplate.update(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                3L, "Alice", "Student", "alice@example.com", "ACTIVE", "STUDENT"
+        );
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Java Basics", "Intro");
+    }
+
+    @Test
+    void getCourse_secondReadShouldBeServedFromCache() throws Exception {
+        CacheStats before = stats(CacheConfig.COURSES);
+
+        mockMvc.perform(get("/api/courses/1")).andExpect(status().isOk());
+        // Меняем строку в обход сервиса: закэшированное значение должно остаться прежним
+        jdbcTemplate.update("UPDATE courses SET title = 'Changed' WHERE id = 1");
+        mockMvc.perform(get("/api/courses/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Java Basics"));
+
+        CacheStats after = stats(CacheConfig.COURSES);
+        assertThat(after.missCount() - before.missCount()).isEqualTo(1);
+        assertThat(after.hitCount() - before.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void saveCourse_shouldInvalidateCachedEntry() throws Exception {
+        mockMvc.perform(get("/api/courses/1")).andExpect(jsonPath("$.title").value("Java Basics"));
+
+        Course course = courseRepository.findById(1L).orElseThrow();
+        course.setTitle("Java Advanced");
+        courseService.save(course);
+
+        mockMvc.perform(get("/api/courses/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Java Advanced"));
+    }
+
+    @Test
+    void readBetweenSaveAndCommit_shouldNotCacheOldValue() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            Course course = courseRepository.findById(1L).orElseThrow();
+            course.setTitle("Java Advanced");
+            courseService.save(course);
+            // Параллельное чтение до коммита видит старую строку и кладёт её в кэш
+            assertThat(CompletableFuture.supplyAsync(() -> courseService.getById(1L).getTitle()).join())
+                    .isEqualTo("Java Basics");
+        });
+
+        assertThat(courseService.getById(1L).getTitle()).isEqualTo("Java Advanced");
+    }
+
+    @Test
+    void missingEntries_shouldNotBeCached() throws Exception {
+        mockMvc.perform(get("/api/users/3")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/users/4")).andExpect(status().isNotFound());
+
+        jdbcTemplate.update(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                4L, "Bob", "Student", "bob@example.com", "ACTIVE", "STUDENT"
+        );
+        mockMvc.perform(get("/api/users/4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("bob@example.com"));
+    }
+
+    private CacheStats stats(String cacheName) {
+        TransactionAwareCacheDecorator cache = (TransactionAwareCacheDecorator) cacheManager.getCache(cacheName);
+        return ((CaffeineCache) cache.getTargetCache()).getNativeCache().stats();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.lms.it;
+
+import com.example.lms.entity.Course;
+import com.example.lms.repository.CourseRepository;
+import com.example.lms.service.CourseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты условного GET (ETag / If-None-Match) для каталога курсов и ростеров на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    CourseService courseService;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        jdbcTemplate.update(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                3L, "Alice", "Student", "alice@example.com", "ACTIVE", "STUDENT"
+        );
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Java Basics", "Intro");
+    }
+
+    @Test
+    void getCourse_withCurrentETag_shouldReturn304WithoutQuery() throws Exception {
+        String etag = etagOf("/api/courses/1");
+
+        // Меняем строку в обход сервиса и сбрасываем кэш: 304 означает, что данные не читались вовсе
+        jdbcTemplate.update("UPDATE courses SET title = 'Changed' WHERE id = 1");
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        mockMvc.perform(get("/api/courses/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/courses/1").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void saveCourse_shouldChangeCourseAndCatalogueETags() throws Exception {
+        String courseTag = etagOf("/api/courses/1");
+        String catalogueTag = etagOf("/api/courses");
+
+        Course course = courseRepository.findById(1L).orElseThrow();
+        course.setTitle("Java Advanced");
+        courseService.save(course);
+
+        mockMvc.perform(get("/api/courses/1").header(HttpHeaders.IF_NONE_MATCH, courseTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Java Advanced"));
+        mockMvc.perform(get("/api/courses").header(HttpHeaders.IF_NONE_MATCH, catalogueTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Java Advanced"));
+        assertThat(etagOf("/api/courses/1")).isNotEqualTo(courseTag);
+    }
+
+    @Test
+    void enroll_shouldChangeRosterETagOnly() throws Exception {
+        String rosterTag = etagOf("/api/courses/1/students");
+        String courseTag = etagOf("/api/courses/1");
+        mockMvc.perform(get("/api/courses/1/students").header(HttpHeaders.IF_NONE_MATCH, rosterTag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":1}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/courses/1/students").header(HttpHeaders.IF_NONE_MATCH, rosterTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(3));
+        mockMvc.perform(get("/api/courses/1").header(HttpHeaders.IF_NONE_MATCH, courseTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void missingCourse_shouldReturn404WithoutETag() throws Exception {
+        mockMvc.perform(get("/api/courses/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private String etagOf(String url) throws Exception {
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+        return etag;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.lms.it;
+
+import com.example.lms.service.EnrollmentService;
+import com.example.lms.service.SeatAvailability;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бенчмарк записи на один популярный курс с ограниченным числом мест при росте числа конкурентов.
+ * <p>
+ * На каждом уровне конкурентности {@value #REQUESTS} разных студентов пытаются записаться на курс
+ * с {@value #CAPACITY} местами. В лог пишутся пропускная способность и задержки (p50/p99);
+ * проверки гарантируют, что ни на одном уровне места не были превышены.
+ */
+@SpringBootTest(properties = "app.enrollment.capacity.full-ttl=2s")
+class CourseCapacityBenchmarkIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCapacityBenchmarkIT.class);
+
+    private static final int REQUESTS = 2_000;
+    private static final int CAPACITY = 500;
+    private static final int[] CONCURRENCY_LEVELS = {1, 8, 64, 256, 1024};
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    SeatAvailability seatAvailability;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        List<Object[]> users = new ArrayList<>(REQUESTS);
+        for (long id = 1; id <= REQUESTS; id++) {
+            users.add(new Object[]{id, "Student" + id, "Bench", "student" + id + "@bench.example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+    }
+
+    @Test
+    void enrollIntoPopularCourse_shouldStayWithinCapacityAtEveryConcurrencyLevel() throws Exception {
+        // Прогрев JIT и пула соединений, в замер не входит
+        run(16);
+
+        for (int threads : CONCURRENCY_LEVELS) {
+            Result result = run(threads);
+            log.info("threads={}: {} req/s, p50={} us, p99={} us, created={}, rejected={}, fast rejects={}",
+                    threads, result.requestsPerSecond(), result.percentileMicros(50), result.percentileMicros(99),
+                    result.created, result.rejected, result.fastRejects);
+
+            assertThat(result.created).isEqualTo(CAPACITY);
+            assertThat(result.rejected).isEqualTo(REQUESTS - CAPACITY);
+            assertThat(result.unexpected).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM enrollments", Long.class))
+                    .isEqualTo(CAPACITY);
+            assertThat(jdbcTemplate.queryForObject("SELECT enrolled_count FROM courses WHERE id = 1", Integer.class))
+                    .isEqualTo(CAPACITY);
+        }
+    }
+
+    private Result run(int threads) throws Exception {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description, capacity) VALUES (?,?,?,?)",
+                1L, "Popular", "Rush", CAPACITY);
+        seatAvailability.markAvailable(1L);
+        long fastRejectsBefore = seatAvailability.fastRejects();
+
+        Result result = new Result();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                int i;
+                while ((i = next.getAndIncrement()) < REQUESTS) {
+                    long startedAt = System.nanoTime();
+                    try {
+                        enrollmentService.enroll(i + 1L, 1L);
+                        created.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        unexpected.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - startedAt;
+                }
+                return null;
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+
+        result.nanos = System.nanoTime() - startedAt;
+        result.latencies = latencies;
+        Arrays.sort(result.latencies);
+        result.created = created.get();
+        result.rejected = rejected.get();
+        result.unexpected = unexpected.get();
+        result.fastRejects = seatAvailability.fastRejects() - fastRejectsBefore;
+        return result;
+    }
+
+    private static final class Result {
+        long nanos;
+        long[] latencies;
+        int created;
+        int rejected;
+        int unexpected;
+        long fastRejects;
+
+        long requestsPerSecond() {
+            return REQUESTS * 1_000_000_000L / Math.max(1, nanos);
+        }
+
+        long percentileMicros(int percentile) {
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(latencies.length * percentile / 100.0) - 1);
+            return latencies[index] / 1_000;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.lms.it;
+
+import com.example.lms.dto.CourseSearchResponse;
+import com.example.lms.entity.Course;
+import com.example.lms.repository.CourseRepository;
+import com.example.lms.service.CourseSearchIndex;
+import com.example.lms.service.CourseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты полнотекстового поиска курсов по in-memory индексу на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseSearchIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSearchIT.class);
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CourseSearchIndex searchIndex;
+
+    @Autowired
+    CourseService courseService;
+
+    @Autowired
+    CourseRepository courseRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+    }
+
+    @Test
+    void search_shouldMatchPrefixesAndRankTitleHitsFirst() throws Exception {
+        insertCourse(1L, "Java Basics", "Introduction to programming");
+        insertCourse(2L, "Spring Boot", "Building services with Java and Spring");
+        insertCourse(3L, "Databases", "SQL and PostgreSQL");
+        searchIndex.load();
+
+        mockMvc.perform(get("/api/courses/search").param("q", "java"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[1].id").value(2));
+
+        mockMvc.perform(get("/api/courses/search").param("q", "Postgre"))
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Databases"));
+
+        // Все слова запроса должны встретиться в курсе
+        mockMvc.perform(get("/api/courses/search").param("q", "java spri"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(2));
+
+        mockMvc.perform(get("/api/courses/search").param("q", "   "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void courseChangesThroughService_shouldUpdateIndex() {
+        insertCourse(1L, "Java Basics", "Intro");
+        searchIndex.load();
+
+        Course course = courseRepository.findById(1L).orElseThrow();
+        course.setTitle("Kotlin Basics");
+        courseService.save(course);
+        assertThat(ids(courseService.search("java", 10))).isEmpty();
+        assertThat(ids(courseService.search("kotlin", 10))).containsExactly(1L);
+
+        courseService.deleteById(1L);
+        assertThat(ids(courseService.search("kotlin", 10))).isEmpty();
+    }
+
+    @Test
+    void search_shouldKeepMostFrequentPrefixExpansionsAndReportTruncation() {
+        // 70 редких продолжений префикса и одно частое, последнее по алфавиту
+        for (long id = 1; id <= 70; id++) {
+            insertCourse(id, "Topic alpha" + id, "Intro");
+        }
+        for (long id = 71; id <= 75; id++) {
+            insertCourse(id, "Topic alphazulu", "Intro");
+        }
+        searchIndex.load();
+
+        CourseSearchResponse response = courseService.search("alpha", CourseSearchResponse.MAX_LIMIT);
+        assertThat(response.isTruncated()).isTrue();
+        assertThat(ids(response)).contains(71L, 72L, 73L, 74L, 75L);
+        assertThat(response.getTotal()).isEqualTo(5 + 63);
+
+        assertThat(courseService.search("alphazulu", 10).isTruncated()).isFalse();
+    }
+
+    @Test
+    void search_shouldStaySubMillisecondOn100kCourses() {
+        // Псевдослова с распределением Ципфа, как у слов естественного языка
+        Random random = new Random(42);
+        String[] vocabulary = new String[20_000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int c = 3 + random.nextInt(8); c > 0; c--) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            vocabulary[i] = word.toString();
+        }
+        double[] cumulative = new double[vocabulary.length];
+        double sum = 0;
+        for (int i = 0; i < vocabulary.length; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            rows.add(new Object[]{id, words(random, vocabulary, cumulative, 4), words(random, vocabulary, cumulative, 60)});
+            if (rows.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO courses (id, title, description) VALUES (?,?,?)", rows);
+                rows.clear();
+            }
+        }
+        searchIndex.load();
+
+        // Частые, средние и редкие слова, префиксы и сочетания слов из названий существующих курсов
+        List<String> queries = new ArrayList<>();
+        for (long id : new long[]{11, 2_222, 33_333, 77_777}) {
+            String[] title = courseRepository.findById(id).orElseThrow().getTitle().split(" ");
+            queries.add(title[0]);
+            queries.add(title[1].substring(0, Math.min(3, title[1].length())));
+            queries.add(title[2] + " " + title[3]);
+        }
+        for (int i = 0; i < 500; i++) {
+            searchIndex.search(queries.get(i % queries.size()), 20);
+        }
+        long[] nanos = new long[2000];
+        for (int i = 0; i < nanos.length; i++) {
+            long startedAt = System.nanoTime();
+            CourseSearchResponse response = searchIndex.search(queries.get(i % queries.size()), 20);
+            nanos[i] = System.nanoTime() - startedAt;
+            assertThat(response.getItems()).isNotEmpty();
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[nanos.length / 2] / 1000;
+        long p99 = nanos[nanos.length * 99 / 100] / 1000;
+        log.info("Search over 100k courses: p50 {} us, p99 {} us", p50, p99);
+        // Порог с запасом на медленные CI-машины; типичная медиана — сотни микросекунд
+        assertThat(p50).isLessThan(5_000);
+    }
+
+    private static String words(Random random, String[] vocabulary, double[] cumulative, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < count; w++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            text.append(w == 0 ? "" : " ").append(vocabulary[index >= 0 ? index : -index - 1]);
+        }
+        return text.toString();
+    }
+
+    private void insertCourse(long id, String title, String description) {
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", id, title, description);
+    }
+
+    private static List<Long> ids(CourseSearchResponse response) {
+        return response.getItems().stream().map(CourseSearchResponse.Hit::getId).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.lms.it;
+
+import com.example.lms.service.CourseStatsReconciler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты статистики записей на курсы и сверки её счётчиков на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseStatsIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CourseStatsReconciler reconciler;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            users.add(new Object[]{id, "First" + id, "Last" + id, "user" + id + "@example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description, capacity) VALUES (2, 'Spring Boot', 'Intro', 3)");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (3, 'Kotlin', 'Intro')");
+    }
+
+    @Test
+    void enrollAndUnenroll_shouldUpdateStatsIncrementally() throws Exception {
+        enroll(1, 2);
+        enroll(2, 2);
+        enroll(3, 1);
+        mockMvc.perform(delete("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":1,\"courseId\":2}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/courses/2/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.courseId").value(2))
+                .andExpect(jsonPath("$.enrolled").value(1))
+                .andExpect(jsonPath("$.capacity").value(3))
+                .andExpect(jsonPath("$.available").value(2));
+        mockMvc.perform(get("/api/courses/99/stats"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/courses/stats").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].enrolled").value(1))
+                .andExpect(jsonPath("$.items[0].available").value(nullValue()))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+        mockMvc.perform(get("/api/courses/stats").param("after", "2"))
+                .andExpect(jsonPath("$.items[0].courseId").value(3))
+                .andExpect(jsonPath("$.items[0].enrolled").value(0))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    void changesBypassingService_shouldBeCorrectedByReconciliation() throws Exception {
+        enroll(1, 1);
+        // Записи, добавленные и удалённые SQL вручную, счётчики не меняют
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 2L, 1L);
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 3L, 3L);
+        jdbcTemplate.update("UPDATE courses SET enrolled_count = 2 WHERE id = 2");
+        mockMvc.perform(get("/api/courses/1/stats")).andExpect(jsonPath("$.enrolled").value(1));
+
+        double correctionsBefore = meterRegistry.get("lms.course.stats.corrections").counter().count();
+        assertThat(reconciler.reconcile()).isEqualTo(3);
+        assertThat(meterRegistry.get("lms.course.stats.corrections").counter().count() - correctionsBefore)
+                .isEqualTo(3);
+
+        mockMvc.perform(get("/api/courses/1/stats")).andExpect(jsonPath("$.enrolled").value(2));
+        mockMvc.perform(get("/api/courses/2/stats")).andExpect(jsonPath("$.enrolled").value(0));
+        mockMvc.perform(get("/api/courses/3/stats")).andExpect(jsonPath("$.enrolled").value(1));
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    private void enroll(long studentId, long courseId) throws Exception {
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}"))
+                .andExpect(status().isCreated());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты курсорной пагинации списков пользователей и курсов на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CursorPaginationIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update(
+                    "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                    id, "User" + id, "Test", "user" + id + "@example.com", "ACTIVE", "STUDENT"
+            );
+            jdbcTemplate.update(
+                    "INSERT INTO courses (id, title, description) VALUES (?,?,?)",
+                    id, "Course " + id, "Description " + id
+            );
+        }
+    }
+
+    @Test
+    void users_shouldBePagedByCursor() throws Exception {
+        mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("ACTIVE"))
+                .andExpect(jsonPath("$.items[0].role").value("STUDENT"))
+                .andExpect(jsonPath("$.nextCursor").value(2));
+
+        mockMvc.perform(get("/api/users").param("after", "4").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(5))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void courses_shouldBePagedByCursor() throws Exception {
+        mockMvc.perform(get("/api/courses").param("after", "2").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.lms.it;
+
+import com.example.lms.config.DataInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет загрузку демо-данных из CSV на H2 (путь через JDBC-батчи, без COPY).
+ */
+@SpringBootTest(properties = {
+        // Загрузчик работает только на пустой БД: отдельная база, без строк других тестов
+        "spring.datasource.url=jdbc:h2:mem:lms_initializer;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "app.data.initializer.enabled=true",
+        "app.data.loader.batch-size=4"
+})
+class DataInitializerIT extends IntegrationTestBase {
+
+    @Autowired
+    DataInitializer dataInitializer;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void run_shouldLoadAllCsvRowsAndKeepIdsGenerating() {
+        assertThat(count("users")).isEqualTo(11);
+        assertThat(count("courses")).isEqualTo(4);
+        assertThat(count("enrollments")).isEqualTo(15);
+        assertThat(jdbcTemplate.queryForObject("select email from users where id = 3", String.class))
+                .isEqualTo("alice@example.com");
+
+        // После загрузки с явными id новые строки должны получать следующий свободный id
+        jdbcTemplate.update("insert into courses (title) values ('Generated')");
+        assertThat(jdbcTemplate.queryForObject("select id from courses where title = 'Generated'", Long.class))
+                .isEqualTo(5L);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.lms.it;
+
+import com.example.lms.service.EnrollmentAdmission;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты допуска запросов записи на курс (частота по студенту и общий лимит) на H2.
+ */
+@SpringBootTest(properties = {
+        "app.enrollment.admission.enabled=true",
+        "app.enrollment.admission.per-student.rate=0.1",
+        "app.enrollment.admission.per-student.burst=2"
+})
+@AutoConfigureMockMvc
+class EnrollmentAdmissionIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+    }
+
+    @Test
+    void studentOverRate_shouldGet429WithRetryAfter_othersUnaffected() throws Exception {
+        // Студентов нет: запросы допускаются и доходят до сервиса (404), но расходуют токены
+        enroll(101).andExpect(status().isNotFound());
+        enroll(101).andExpect(status().isNotFound());
+        enroll(101)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+                .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+
+        enroll(102).andExpect(status().isNotFound());
+        assertThat(meterRegistry.get("lms.enrollment.admission").tag("outcome", "rejected_student").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void globalLimit_shouldRejectWithoutWaiting() {
+        EnrollmentAdmission admission = new EnrollmentAdmission(true, 100, 10, 16, 2, new SimpleMeterRegistry());
+
+        EnrollmentAdmission.Permit first = admission.admit(1);
+        EnrollmentAdmission.Permit second = admission.admit();
+        assertThatThrownBy(() -> admission.admit(2))
+                .isInstanceOfSatisfying(EnrollmentAdmission.Rejected.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(503);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+                });
+
+        first.close();
+        admission.admit(2).close();
+        second.close();
+    }
+
+    @Test
+    void idleBuckets_shouldBeReusedByOtherStudents() {
+        // 16 ячеек на 10 000 студентов: вёдра с истёкшим TAT занимаются заново, частота по-прежнему соблюдается
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        EnrollmentAdmission admission = new EnrollmentAdmission(true, 1_000_000_000, 1, 16, 100, registry);
+        for (long student = 1; student <= 10_000; student++) {
+            admission.admit(student).close();
+        }
+        assertThat(registry.get("lms.enrollment.admission").tag("outcome", "untracked").counter().count()).isZero();
+
+        EnrollmentAdmission strict = new EnrollmentAdmission(true, 0.001, 1, 16, 100, new SimpleMeterRegistry());
+        strict.admit(7).close();
+        assertThatThrownBy(() -> strict.admit(7)).isInstanceOf(EnrollmentAdmission.Rejected.class);
+    }
+
+    private ResultActions enroll(long studentId) throws Exception {
+        return mockMvc.perform(post("/api/enrollments")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentId\":" + studentId + ",\"courseId\":1}"));
+    }
+}
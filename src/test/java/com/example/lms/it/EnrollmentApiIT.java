@@ -56,12 +56,12 @@ class EnrollmentApiIT extends IntegrationTestBase {
 
         // Courses
         jdbcTemplate.update(
-                "INSERT INTO courses (id, title, description, teacher_id) VALUES (?,?,?,?)",
-                1L, "Java Basics", "Intro to Java", 2L
+                "INSERT INTO courses (id, title, description) VALUES (?,?,?)",
+                1L, "Java Basics", "Intro to Java"
         );
         jdbcTemplate.update(
-                "INSERT INTO courses (id, title, description, teacher_id) VALUES (?,?,?,?)",
-                2L, "Spring Boot", "Spring Boot basics", 2L
+                "INSERT INTO courses (id, title, description) VALUES (?,?,?)",
+                2L, "Spring Boot", "Spring Boot basics"
         );
     }
 
@@ -99,9 +99,35 @@ class EnrollmentApiIT extends IntegrationTestBase {
         mockMvc.perform(get("/api/courses/1/students"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id").value(3))
-                .andExpect(jsonPath("$[0].email").value("alice@example.com"));
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.items[0].email").value("alice@example.com"))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void getStudents_shouldPageByStudentId() throws Exception {
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 1L, 1L);
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 3L, 1L);
+
+        mockMvc.perform(get("/api/courses/1/students").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+
+        mockMvc.perform(get("/api/courses/1/students").param("after", "1").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(3))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void getStudents_unknownCourse_shouldReturn404() throws Exception {
+        mockMvc.perform(get("/api/courses/999/students"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("NOT_FOUND"));
     }
 
     @Test
@@ -117,7 +143,119 @@ class EnrollmentApiIT extends IntegrationTestBase {
 
         mockMvc.perform(get("/api/courses/1/students"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
+    @Test
+    void enrollBatch_shouldReportOutcomePerItem() throws Exception {
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 3L, 1L);
+
+        String body = objectMapper.writeValueAsString(new BatchReq(
+                new EnrollmentReq(3L, 2L),
+                new EnrollmentReq(3L, 1L),
+                new EnrollmentReq(3L, 2L),
+                new EnrollmentReq(99L, 1L),
+                new EnrollmentReq(3L, 99L)
+        ));
+
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[*].status",
+                        contains("CREATED", "DUPLICATE", "DUPLICATE", "STUDENT_NOT_FOUND", "COURSE_NOT_FOUND")))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.duplicates").value(2))
+                .andExpect(jsonPath("$.notFound").value(2));
+
+        mockMvc.perform(get("/api/courses/2/students"))
+                .andExpect(jsonPath("$.items", hasSize(1)));
+    }
+
+    @Test
+    void enroll_fullCourse_shouldReturn409_untilSeatIsReleased() throws Exception {
+        jdbcTemplate.update("UPDATE courses SET capacity = 1 WHERE id = 2");
+
+        mockMvc.perform(post("/api/enrollments")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EnrollmentReq(3L, 2L))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/enrollments")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EnrollmentReq(1L, 2L))))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Course is full: 2"));
+
+        mockMvc.perform(delete("/api/enrollments")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EnrollmentReq(3L, 2L))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/enrollments")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new EnrollmentReq(1L, 2L))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void enrollBatch_overCapacity_shouldReportCourseFull() throws Exception {
+        jdbcTemplate.update("UPDATE courses SET capacity = 2 WHERE id = 1");
+
+        String body = objectMapper.writeValueAsString(new BatchReq(
+                new EnrollmentReq(1L, 1L),
+                new EnrollmentReq(2L, 1L),
+                new EnrollmentReq(3L, 1L)
+        ));
+
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[*].status", contains("CREATED", "CREATED", "COURSE_FULL")))
+                .andExpect(jsonPath("$.courseFull").value(1));
+
+        mockMvc.perform(get("/api/courses/1/students"))
+                .andExpect(jsonPath("$.items", hasSize(2)));
+    }
+
+    @Test
+    void enrollBatch_outOfKeyOrder_shouldKeepRequestOrderAndGiveSeatsInRequestOrder() throws Exception {
+        jdbcTemplate.update("UPDATE courses SET capacity = 2 WHERE id = 1");
+
+        // Вставка идёт в порядке (student_id, course_id), но итоги и места — в порядке запроса
+        String body = objectMapper.writeValueAsString(new BatchReq(
+                new EnrollmentReq(3L, 2L),
+                new EnrollmentReq(3L, 1L),
+                new EnrollmentReq(2L, 1L),
+                new EnrollmentReq(1L, 1L),
+                new EnrollmentReq(3L, 2L)
+        ));
+
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[*].studentId", contains(3, 3, 2, 1, 3)))
+                .andExpect(jsonPath("$.results[*].status",
+                        contains("CREATED", "CREATED", "CREATED", "COURSE_FULL", "DUPLICATE")));
+    }
+
+    @Test
+    void enrollBatch_empty_shouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/enrollments/batch")
+                        .contentType(APPLICATION_JSON)
+                        .content("{\"items\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+    }
+
+    static final class BatchReq {
+        public EnrollmentReq[] items;
+
+        BatchReq(EnrollmentReq... items) {
+            this.items = items;
+        }
     }
 
     static final class EnrollmentReq {
@@ -0,0 +1,168 @@
+package com.example.lms.it;
+
+import com.example.lms.service.EnrollmentService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Стресс-тесты записи на курс под конкуренцией на H2.
+ * Проверяют, что одновременные запросы дают ровно одну запись на пару student+course,
+ * а проигравшие получают конфликт, а не ошибку БД; ограничение мест на курсе не превышается.
+ */
+@SpringBootTest
+class EnrollmentConcurrencyIT extends IntegrationTestBase {
+
+    private static final int STUDENTS = 50;
+    private static final int THREADS = 32;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        for (long id = 1; id <= STUDENTS; id++) {
+            jdbcTemplate.update(
+                    "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                    id, "Student" + id, "Test", "student" + id + "@example.com", "ACTIVE", "STUDENT"
+            );
+        }
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Popular", "Rush");
+    }
+
+    @Test
+    void sameStudentEnrolledConcurrently_shouldCreateExactlyOneEnrollment() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(() -> {
+                enrollmentService.enroll(1L, 1L);
+                return null;
+            });
+        }
+
+        Outcome outcome = runConcurrently(tasks);
+
+        assertThat(outcome.created).isEqualTo(1);
+        assertThat(outcome.conflicts).isEqualTo(THREADS - 1);
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(countEnrollments()).isEqualTo(1);
+    }
+
+    @Test
+    void registrationRush_shouldEnrollEveryStudentOnceAndRejectRetries() throws Exception {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+            long id = studentId;
+            // Каждый студент отправляет запрос дважды — имитация повторного клика/ретрая клиента
+            for (int attempt = 0; attempt < 2; attempt++) {
+                tasks.add(() -> {
+                    enrollmentService.enroll(id, 1L);
+                    return null;
+                });
+            }
+        }
+
+        Outcome outcome = runConcurrently(tasks);
+
+        assertThat(outcome.created).isEqualTo(STUDENTS);
+        assertThat(outcome.conflicts).isEqualTo(STUDENTS);
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(countEnrollments()).isEqualTo(STUDENTS);
+    }
+
+    @Test
+    void rushForLimitedSeats_shouldNeverExceedCapacity() throws Exception {
+        int capacity = 10;
+        jdbcTemplate.update("UPDATE courses SET capacity = ? WHERE id = 1", capacity);
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+            long id = studentId;
+            tasks.add(() -> {
+                enrollmentService.enroll(id, 1L);
+                return null;
+            });
+        }
+
+        Outcome outcome = runConcurrently(tasks);
+
+        assertThat(outcome.created).isEqualTo(capacity);
+        assertThat(outcome.conflicts).isEqualTo(STUDENTS - capacity);
+        assertThat(outcome.unexpected).isEmpty();
+        assertThat(countEnrollments()).isEqualTo(capacity);
+        assertThat(jdbcTemplate.queryForObject("SELECT enrolled_count FROM courses WHERE id = 1", Integer.class))
+                .isEqualTo(capacity);
+    }
+
+    @Test
+    void enroll_missingStudentOrCourse_shouldThrowNotFound() {
+        assertThatThrownBy(() -> enrollmentService.enroll(999L, 1L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Student not found");
+        assertThatThrownBy(() -> enrollmentService.enroll(1L, 999L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("Course not found");
+        assertThat(countEnrollments()).isZero();
+    }
+
+    private Outcome runConcurrently(List<Callable<Void>> tasks) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> task : tasks) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+
+        Outcome outcome = new Outcome();
+        for (Future<Void> future : futures) {
+            try {
+                future.get(30, TimeUnit.SECONDS);
+                outcome.created++;
+            } catch (java.util.concurrent.ExecutionException e) {
+                if (e.getCause() instanceof IllegalStateException) {
+                    outcome.conflicts++;
+                } else {
+                    outcome.unexpected.add(e.getCause());
+                }
+            }
+        }
+        pool.shutdown();
+        return outcome;
+    }
+
+    private long countEnrollments() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM enrollments", Long.class);
+    }
+
+    private static final class Outcome {
+        int created;
+        int conflicts;
+        final List<Throwable> unexpected = new ArrayList<>();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.lms.it;
+
+import com.example.lms.service.EnrollmentIndex;
+import com.example.lms.service.EnrollmentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты in-memory индекса записей на курсы на H2.
+ */
+@SpringBootTest(properties = "app.enrollment.index.enabled=true")
+@AutoConfigureMockMvc
+class EnrollmentIndexIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EnrollmentIndex enrollmentIndex;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        for (long id = 3; id <= 4; id++) {
+            jdbcTemplate.update(
+                    "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                    id, "Student" + id, "Test", "student" + id + "@example.com", "ACTIVE", "STUDENT"
+            );
+        }
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Java Basics", "Intro");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 2L, "Spring", "Boot");
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 3L, 1L);
+
+        enrollmentIndex.load();
+    }
+
+    @Test
+    void load_shouldIndexExistingEnrollments() {
+        assertThat(enrollmentIndex.isReady()).isTrue();
+        assertThat(enrollmentIndex.contains(3L, 1L)).isTrue();
+        assertThat(enrollmentIndex.contains(4L, 1L)).isFalse();
+        assertThat(enrollmentService.countStudents(1L)).isEqualTo(1);
+        assertThat(enrollmentIndex.estimatedBytes()).isPositive();
+    }
+
+    @Test
+    void enrollAndUnenroll_shouldKeepIndexInSync() throws Exception {
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":2}"))
+                .andExpect(status().isCreated());
+        assertThat(enrollmentIndex.contains(3L, 2L)).isTrue();
+
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":2}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/users/3/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+
+        mockMvc.perform(delete("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":1}"))
+                .andExpect(status().isNoContent());
+        assertThat(enrollmentIndex.contains(3L, 1L)).isFalse();
+        assertThat(enrollmentService.countStudents(1L)).isZero();
+
+        mockMvc.perform(delete("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":1}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void writesBypassingService_shouldNotCauseFalse409or404() throws Exception {
+        // Другой экземпляр приложения удалил (3, 1) и создал (4, 2): локальный индекс об этом не знает
+        jdbcTemplate.update("DELETE FROM enrollments WHERE student_id = 3 AND course_id = 1");
+        jdbcTemplate.update("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", 4L, 2L);
+
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":3,\"courseId\":1}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":4,\"courseId\":2}"))
+                .andExpect(status().isNoContent());
+
+        assertThat(enrollmentIndex.contains(3L, 1L)).isTrue();
+        assertThat(enrollmentIndex.contains(4L, 2L)).isFalse();
+    }
+
+    @Test
+    void rolledBackEnrollment_shouldNotReachIndex() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            enrollmentService.enroll(4L, 1L);
+            status.setRollbackOnly();
+        });
+
+        assertThat(enrollmentIndex.contains(4L, 1L)).isFalse();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM enrollments", Long.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверяет по планам H2 ({@code EXPLAIN}), что частые запросы к {@code enrollments} идут по индексам из миграций,
+ * а не полным просмотром таблицы. SQL повторяет то, что Hibernate и JDBC-репозитории отправляют в БД.
+ * <p>
+ * H2 сам создаёт одноколоночный индекс под внешний ключ {@code course_id} и предпочитает его, когда
+ * порядок по {@code student_id} не нужен; на PostgreSQL такого индекса нет, и эти запросы обслуживает
+ * {@code ix_enrollments_course_student}.
+ */
+@SpringBootTest
+class EnrollmentQueryPlanIT extends IntegrationTestBase {
+
+    private static final String COURSE_INDEX = "ix_enrollments_course_student";
+    private static final String STUDENT_INDEX = "uk_enrollment_student_course";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rosterPage_shouldUseCourseStudentIndexRange() {
+        // EnrollmentRepository#findRosterPage
+        String plan = explain("select u.id, u.first_name, u.last_name, u.email, u.status, u.role " +
+                "from courses c " +
+                "left join enrollments e on e.course_id = c.id and e.student_id > 100 " +
+                "left join users u on u.id = e.student_id " +
+                "where c.id = 1 order by u.id fetch first 51 rows only");
+
+        assertThat(enrollmentsAccess(plan)).contains(COURSE_INDEX).contains("student_id >").contains("course_id =");
+    }
+
+    @Test
+    void courseSideLookups_shouldUseCourseLeadingIndex() {
+        // EnrollmentRepository#findAllByCourseId: все колонки есть в индексе
+        assertThat(enrollmentsAccess(explain(
+                "select e.id, e.course_id, e.student_id from enrollments e where e.course_id = 1")))
+                .contains(COURSE_INDEX);
+        // EnrollmentRepository#countByCourseId
+        assertCourseIndexScan(explain("select count(e.id) from enrollments e where e.course_id = 1"));
+        // CourseRepositoryCustom#findSeatCounts (сверка счётчиков мест)
+        assertCourseIndexScan(explain("select course_id, count(*) from enrollments " +
+                "where course_id between 1 and 1000 group by course_id"));
+    }
+
+    @Test
+    void studentSideLookups_shouldUseStudentCourseUniqueIndex() {
+        // EnrollmentRepository#findCourseIdsByStudentId
+        assertThat(enrollmentsAccess(explain(
+                "select e.course_id from enrollments e where e.student_id = 1 order by e.course_id")))
+                .contains(STUDENT_INDEX);
+        // EnrollmentRepositoryCustom#deleteBatch, EnrollmentRepository#deleteByStudentIdAndCourseId
+        assertThat(enrollmentsAccess(explain("delete from enrollments where student_id = 1 and course_id = 1")))
+                .contains(STUDENT_INDEX).contains("course_id =");
+        // EnrollmentRepository#existsByStudentIdAndCourseId
+        assertThat(enrollmentsAccess(explain(
+                "select e.id from enrollments e where e.student_id = 1 and e.course_id = 1 fetch first 1 rows only")))
+                .contains(STUDENT_INDEX);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Комментарий H2 о способе доступа к {@code enrollments}: {@code /* PUBLIC.<индекс>: <условия> *}{@code /}
+     * или {@code tableScan}.
+     */
+    private static String enrollmentsAccess(String plan) {
+        int table = plan.indexOf("\"PUBLIC\".\"enrollments\"");
+        assertThat(table).as("plan mentions enrollments: %s", plan).isNotNegative();
+        int start = plan.indexOf("/*", table);
+        return plan.substring(start, plan.indexOf("*/", start) + 2);
+    }
+
+    private static void assertCourseIndexScan(String plan) {
+        assertThat(enrollmentsAccess(plan))
+                .doesNotContain("tableScan")
+                .containsPattern("course_id (=|>=)");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты NDJSON-выгрузок на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportApiIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        jdbcTemplate.update(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                3L, "Alice", "Student", "alice@example.com", "ACTIVE", "STUDENT"
+        );
+        jdbcTemplate.update(
+                "INSERT INTO courses (id, title, description) VALUES (?,?,?)",
+                1L, "Java Basics", "Intro to Java"
+        );
+        jdbcTemplate.update(
+                "INSERT INTO courses (id, title, description) VALUES (?,?,?)",
+                2L, "Spring Boot", "Spring Boot basics"
+        );
+        jdbcTemplate.update("INSERT INTO enrollments (id, student_id, course_id) VALUES (?,?,?)", 10L, 3L, 1L);
+    }
+
+    @Test
+    void exportUsers_shouldStreamOneJsonObjectPerLine() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":3,\"firstName\":\"Alice\",\"lastName\":\"Student\",\"email\":\"alice@example.com\","
+                                + "\"status\":\"ACTIVE\",\"role\":\"STUDENT\"}\n"));
+    }
+
+    @Test
+    void exportCourses_shouldStreamAllCoursesInIdOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/courses/export")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"id\":1,\"title\":\"Java Basics\",\"description\":\"Intro to Java\",\"teacherId\":null,\"capacity\":null}\n"
+                                + "{\"id\":2,\"title\":\"Spring Boot\",\"description\":\"Spring Boot basics\",\"teacherId\":null,\"capacity\":null}\n"));
+    }
+
+    @Test
+    void exportEnrollments_shouldStreamForeignKeyIds() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/enrollments/export")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":10,\"studentId\":3,\"courseId\":1}\n"));
+    }
+}
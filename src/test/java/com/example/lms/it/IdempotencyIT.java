@@ -0,0 +1,213 @@
+package com.example.lms.it;
+
+import com.example.lms.service.AlreadyEnrolledException;
+import com.example.lms.service.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты {@code Idempotency-Key} для записи и отписки на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, status, role) " +
+                "VALUES (1, 'Ann', 'Lee', 'ann@example.com', 'ACTIVE', 'STUDENT')");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (2, 'Spring Boot', 'Intro')");
+    }
+
+    @Test
+    void retriedEnrollAndUnenroll_shouldGetFirstResponse() throws Exception {
+        double replayedBefore = replayed();
+
+        String id = perform(post("/api/enrollments"), "k-1", 1, 1)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        perform(post("/api/enrollments"), "k-1", 1, 1)
+                .andExpect(status().isCreated())
+                .andExpect(result -> assertThat(result.getResponse().getContentAsString()).isEqualTo(id));
+        // Без ключа повтор — это новый запрос
+        perform(post("/api/enrollments"), null, 1, 1).andExpect(status().isConflict());
+        // Тот же ключ с другим телом
+        perform(post("/api/enrollments"), "k-1", 1, 2).andExpect(status().isUnprocessableEntity());
+
+        perform(delete("/api/enrollments"), "k-2", 1, 1).andExpect(status().isNoContent());
+        perform(delete("/api/enrollments"), "k-2", 1, 1).andExpect(status().isNoContent());
+
+        // Окончательный отказ тоже запоминается
+        perform(post("/api/enrollments"), "k-3", 1, 99).andExpect(status().isNotFound());
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (99, 'Late', 'Intro')");
+        perform(post("/api/enrollments"), "k-3", 1, 99)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Course not found: 99"));
+
+        assertThat(replayed() - replayedBefore).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments", Integer.class)).isZero();
+    }
+
+    @Test
+    void concurrentDuplicates_shouldWaitForFirstRequest() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(true, 100, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                new SimpleMeterRegistry());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(pool.submit(() -> store.execute("enroll", 1, "key", "1:1", () -> {
+            executions.incrementAndGet();
+            running.countDown();
+            await(release);
+            return "created";
+        })));
+        running.await();
+        for (int i = 0; i < 7; i++) {
+            results.add(pool.submit(() -> store.execute("enroll", 1, "key", "1:1", () -> {
+                executions.incrementAndGet();
+                return "raced";
+            })));
+        }
+        Thread.sleep(100);
+        assertThat(results).noneMatch(Future::isDone);
+
+        release.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("created");
+        }
+        pool.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    void transientFailure_shouldNotBeRemembered_andLongWaitShouldGet409() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(true, 100, Duration.ofMinutes(1), Duration.ofMillis(50),
+                new SimpleMeterRegistry());
+
+        assertThatThrownBy(() -> store.execute("enroll", 1, "key", "1:1", () -> {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "busy");
+        })).isInstanceOf(ResponseStatusException.class);
+        assertThat(store.execute("enroll", 1, "key", "1:1", () -> "created")).isEqualTo("created");
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<String> slow = pool.submit(() -> store.execute("enroll", 1, "slow", "1:1", () -> {
+            running.countDown();
+            await(release);
+            return "created";
+        }));
+        running.await();
+        assertThatThrownBy(() -> store.execute("enroll", 1, "slow", "1:1", () -> "raced"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode().value()).isEqualTo(409));
+        release.countDown();
+        assertThat(slow.get(10, TimeUnit.SECONDS)).isEqualTo("created");
+        pool.shutdown();
+    }
+
+    @Test
+    void temporaryConflict_shouldNotBeRemembered_andKeysShouldBeScopedToStudent() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (id, first_name, last_name, email, status, role) " +
+                "VALUES (2, 'Bob', 'Ray', 'bob@example.com', 'ACTIVE', 'STUDENT')");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description, capacity) VALUES (3, 'Full', 'Intro', 1)");
+        perform(post("/api/enrollments"), "k-4", 2, 3).andExpect(status().isCreated());
+
+        // Тот же ключ у другого студента — отдельный запрос; «курс заполнен» не запоминается
+        perform(post("/api/enrollments"), "k-4", 1, 3)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Course is full: 3"));
+        perform(delete("/api/enrollments"), null, 2, 3).andExpect(status().isNoContent());
+        perform(post("/api/enrollments"), "k-4", 1, 3).andExpect(status().isCreated());
+    }
+
+    @Test
+    void rejection_shouldBeReplayedAsSnapshot_andOtherFailuresShouldNot() {
+        IdempotencyStore store = new IdempotencyStore(true, 100, Duration.ofMinutes(1), Duration.ofSeconds(10),
+                new SimpleMeterRegistry());
+        AlreadyEnrolledException rejection = new AlreadyEnrolledException();
+
+        assertThatThrownBy(() -> store.execute("enroll", 1, "key", "1:1", () -> {
+            throw rejection;
+        })).isSameAs(rejection);
+        assertThatThrownBy(() -> store.execute("enroll", 1, "key", "1:1", () -> "raced"))
+                .isNotSameAs(rejection)
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode().value()).isEqualTo(409);
+                    assertThat(e.getReason()).isEqualTo(rejection.getMessage());
+                });
+
+        assertThatThrownBy(() -> store.execute("enroll", 1, "other", "1:1", () -> {
+            throw new IllegalStateException("framework");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(store.execute("enroll", 1, "other", "1:1", () -> "created")).isEqualTo("created");
+    }
+
+    private ResultActions perform(MockHttpServletRequestBuilder request, String key, long studentId, long courseId)
+            throws Exception {
+        request.contentType(MediaType.APPLICATION_JSON)
+                .content("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}");
+        if (key != null) {
+            request.header(IdempotencyStore.HEADER, key);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private double replayed() {
+        return meterRegistry.get("lms.idempotency").tag("outcome", "replayed").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,7 +4,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 /**
  * Базовая конфигурация интеграционных тестов.
- * Использует профиль test (H2 + create-drop).
+ * Использует профиль test (H2, схема из миграций Flyway).
  */
 @ActiveProfiles("test")
 public abstract class IntegrationTestBase {
@@ -0,0 +1,83 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты метрик в формате Prometheus ({@code /actuator/prometheus}) на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        jdbcTemplate.update(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)",
+                3L, "Alice", "Student", "alice@example.com", "ACTIVE", "STUDENT"
+        );
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (?,?,?)", 1L, "Java Basics", "Intro");
+    }
+
+    @Test
+    void prometheus_shouldExposeEndpointRepositoryPoolAndEnrollmentMetrics() throws Exception {
+        enroll(3L, 1L).andExpect(status().isCreated());
+        enroll(3L, 1L).andExpect(status().isConflict());
+        enroll(99L, 1L).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/courses/1/students")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                // таймер каждого метода контроллера с гистограммой для p99
+                .andExpect(content().string(containsString(
+                        "http_server_requests_seconds_bucket{application=\"lms\",error=\"none\",exception=\"none\","
+                                + "method=\"POST\",outcome=\"SUCCESS\",status=\"201\",uri=\"/api/enrollments\"")))
+                .andExpect(content().string(containsString("uri=\"/api/courses/{courseId}/students\"")))
+                // вызовы методов репозиториев
+                .andExpect(content().string(containsString(
+                        "spring_data_repository_invocations_seconds_count{application=\"lms\",exception=\"None\","
+                                + "method=\"findRosterPage\",repository=\"EnrollmentRepository\",state=\"SUCCESS\"}")))
+                .andExpect(content().string(containsString("method=\"insertIfAbsent\"")))
+                // пул соединений
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                // исходы записи на курс
+                .andExpect(content().string(containsString(
+                        "lms_enrollments_total{application=\"lms\",outcome=\"created\",source=\"single\"} 1.0")))
+                .andExpect(content().string(containsString(
+                        "lms_enrollments_total{application=\"lms\",outcome=\"duplicate\",source=\"single\"} 1.0")))
+                .andExpect(content().string(containsString(
+                        "lms_enrollments_total{application=\"lms\",outcome=\"not_found\",source=\"single\"} 1.0")));
+    }
+
+    private ResultActions enroll(long studentId, long courseId) throws Exception {
+        return mockMvc.perform(post("/api/enrollments")
+                .contentType(APPLICATION_JSON)
+                .content("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}"));
+    }
+}
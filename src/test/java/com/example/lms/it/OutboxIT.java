@@ -0,0 +1,146 @@
+package com.example.lms.it;
+
+import com.example.lms.dto.EnrollmentEvent;
+import com.example.lms.dto.EnrollmentRequest;
+import com.example.lms.entity.enums.EnrollmentEventType;
+import com.example.lms.repository.OutboxEventRepository;
+import com.example.lms.service.EnrollmentService;
+import com.example.lms.service.InMemoryEnrollmentEventSink;
+import com.example.lms.service.OutboxPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты transactional outbox событий о записях на курсы на H2.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class OutboxIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    OutboxPublisher publisher;
+
+    @Autowired
+    InMemoryEnrollmentEventSink sink;
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollment_outbox");
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+        sink.clear();
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            users.add(new Object[]{id, "First" + id, "Last" + id, "user" + id + "@example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+        jdbcTemplate.update("INSERT INTO courses (id, title, description, capacity) VALUES (2, 'Spring Boot', 'Intro', 5)");
+    }
+
+    @Test
+    void enrollAndUnenroll_shouldBeDeliveredInOrder() throws Exception {
+        String body = "{\"studentId\":1,\"courseId\":1}";
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/enrollments").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent());
+        // Отклонённая запись (нет курса) событий не даёт
+        mockMvc.perform(post("/api/enrollments").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":1,\"courseId\":99}"))
+                .andExpect(status().isNotFound());
+
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+        assertThat(sink.events()).isEmpty();
+
+        assertThat(publisher.publishPending()).isEqualTo(2);
+        assertThat(sink.events()).extracting(EnrollmentEvent::getType)
+                .containsExactly(EnrollmentEventType.ENROLLED, EnrollmentEventType.UNENROLLED);
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.get("lms.outbox.published").counter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void batchEnrollment_shouldPublishOnlyCreatedPairsPerCourseInOrder() {
+        List<EnrollmentRequest> items = new ArrayList<>();
+        for (long student = 1; student <= 20; student++) {
+            items.add(pair(student, 1L));
+            items.add(pair(student, 2L)); // вместимость 5: остальные отклоняются
+        }
+        enrollmentService.enrollBatch(items);
+        enrollmentService.unenroll(3L, 2L);
+
+        publisher.publishPending();
+
+        Map<Long, List<EnrollmentEvent>> byCourse = sink.events().stream()
+                .collect(Collectors.groupingBy(EnrollmentEvent::getCourseId));
+        assertThat(byCourse.get(1L)).hasSize(20);
+        assertThat(byCourse.get(2L)).hasSize(6);
+        byCourse.values().forEach(events ->
+                assertThat(events).isSortedAccordingTo(Comparator.comparingLong(EnrollmentEvent::getId)));
+        assertThat(byCourse.get(2L).get(5).getType()).isEqualTo(EnrollmentEventType.UNENROLLED);
+    }
+
+    @Test
+    void failedDelivery_shouldKeepEventsForRetry() {
+        enrollmentService.enroll(1L, 1L);
+        enrollmentService.enroll(2L, 1L);
+
+        OutboxPublisher failing = new OutboxPublisher(outboxEventRepository, events -> {
+            throw new IllegalStateException("sink is down");
+        }, transactionManager, new SimpleMeterRegistry(), 500, 20);
+        assertThat(failing.publishPending()).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(publisher.publishPending()).isEqualTo(2);
+        assertThat(sink.events()).extracting(EnrollmentEvent::getStudentId).containsExactly(1L, 2L);
+    }
+
+    private static EnrollmentRequest pair(long studentId, long courseId) {
+        EnrollmentRequest request = new EnrollmentRequest();
+        request.setStudentId(studentId);
+        request.setCourseId(courseId);
+        return request;
+    }
+}
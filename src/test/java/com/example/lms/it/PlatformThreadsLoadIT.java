@@ -0,0 +1,23 @@
+package com.example.lms.it;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Нагрузка на API в режиме по умолчанию: пул платформенных потоков Tomcat, без {@code DbConcurrencyLimitFilter}.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false"
+)
+class PlatformThreadsLoadIT extends AbstractThreadModeLoadIT {
+
+    @Override
+    String mode() {
+        return "platform";
+    }
+
+    @Override
+    boolean concurrencyLimited() {
+        return false;
+    }
+}
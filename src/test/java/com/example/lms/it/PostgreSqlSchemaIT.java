@@ -0,0 +1,46 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Миграции и маппинг сущностей на настоящем PostgreSQL: Flyway создаёт схему, Hibernate сверяет с ней
+ * сущности ({@code ddl-auto: validate}, как в профилях dev и prod). Контекст не поднимется, если сущность
+ * разойдётся со схемой. Остальные тесты идут на H2 без сверки, поэтому расхождение увидит только этот тест.
+ * Без Docker тест пропускается.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest
+class PostgreSqlSchemaIT extends IntegrationTestBase {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driver-class-name", postgres::getDriverClassName);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    }
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_shouldMatchEntityMapping() {
+        Integer applied = jdbcTemplate.queryForObject(
+                "select count(*) from flyway_schema_history where success", Integer.class);
+        assertThat(applied).isEqualTo(2);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.lms.it;
+
+import com.example.lms.service.EnrollmentService;
+import com.example.lms.service.ReadCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Стресс-тест объединения одновременных одинаковых чтений курсов и ростеров на H2.
+ */
+@SpringBootTest(properties = "app.read-coalescing.window=200ms")
+@AutoConfigureMockMvc
+class ReadCoalescingIT extends IntegrationTestBase {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadCoalescingIT.class);
+
+    private static final int STUDENTS = 100;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 1_000;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EnrollmentService enrollmentService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM enrollments");
+        jdbcTemplate.execute("DELETE FROM courses");
+        jdbcTemplate.execute("DELETE FROM users");
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= STUDENTS + 1; id++) {
+            users.add(new Object[]{id, "First" + id, "Last" + id, "user" + id + "@example.com", "ACTIVE", "STUDENT"});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (?,?,?,?,?,?)", users);
+        jdbcTemplate.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+        List<Object[]> enrollments = new ArrayList<>();
+        for (long id = 1; id <= STUDENTS; id++) {
+            enrollments.add(new Object[]{id, 1L});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO enrollments (student_id, course_id) VALUES (?,?)", enrollments);
+    }
+
+    @Test
+    void concurrentRosterReads_shouldShareQueries_andSeeWritesImmediately() throws Exception {
+        double queriesBefore = rosterQueries();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger ok = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                mockMvc.perform(get("/api/courses/1/students").param("limit", "100"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.items.length()").value(STUDENTS));
+                ok.incrementAndGet();
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        pool.shutdown();
+
+        long queries = Math.round(rosterQueries() - queriesBefore);
+        log.info("Roster reads: {} requests in {} ms -> {} queries", REQUESTS, elapsedMs, queries);
+        assertThat(ok.get()).isEqualTo(REQUESTS);
+        assertThat(queries).isGreaterThanOrEqualTo(1).isLessThan(REQUESTS / 10);
+
+        // Запись меняет ETag ростера: следующий запрос не получает результат из окна
+        enrollmentService.enroll(STUDENTS + 1L, 1L);
+        mockMvc.perform(get("/api/courses/1/students").param("limit", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(STUDENTS + 1));
+    }
+
+    @Test
+    void inFlightLoad_shouldBeSharedByWaitingCallers_andFailuresNotKept() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ReadCoalescer coalescer = new ReadCoalescer(true, Duration.ZERO, registry);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        Future<String> leader = pool.submit(() -> coalescer.execute("key", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        loading.await();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < THREADS - 1; i++) {
+            followers.add(pool.submit(() -> coalescer.execute("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        // Последователи должны успеть встать в ожидание до окончания загрузки
+        while (registry.get("lms.read.coalescing").tag("outcome", "shared").counter().count() < THREADS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        pool.shutdown();
+        assertThat(loads.get()).isEqualTo(1);
+
+        assertThatThrownBy(() -> coalescer.execute("missing", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.execute("missing", () -> "found")).isEqualTo("found");
+    }
+
+    private double rosterQueries() {
+        return meterRegistry.find("spring.data.repository.invocations")
+                .tag("method", "findRosterPage")
+                .timers().stream()
+                .mapToDouble(timer -> timer.count())
+                .sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.lms.it;
+
+import com.example.lms.entity.Course;
+import com.example.lms.entity.User;
+import com.example.lms.entity.enums.UserRole;
+import com.example.lms.entity.enums.UserStatus;
+import com.example.lms.service.CourseService;
+import com.example.lms.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Интеграционные тесты маршрутизации чтения в реплику на двух независимых базах H2.
+ * Репликации между ними нет, поэтому реплика ведёт себя как сильно отстающая: по содержимому ответа
+ * видно, из какой базы он прочитан.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.url=jdbc:h2:mem:lms_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.read-your-writes=500ms"
+})
+@AutoConfigureMockMvc
+class ReadReplicaIT extends IntegrationTestBase {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    @Autowired
+    CourseService courseService;
+
+    @Autowired
+    UserService userService;
+
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        // Схему создаёт Hibernate в основной БД; реплике она копируется
+        Integer replicaTables = replica.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'courses'", Integer.class);
+        if (replicaTables == 0) {
+            List<String> ddl = primary.queryForList("SCRIPT NODATA", String.class);
+            ddl.stream().filter(sql -> !sql.startsWith("CREATE USER")).forEach(replica::execute);
+        }
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.execute("DELETE FROM enrollments");
+            db.execute("DELETE FROM courses");
+            db.execute("DELETE FROM users");
+            db.update("INSERT INTO users (id, first_name, last_name, email, status, role) VALUES (1, 'Ann', 'Lee', 'ann@example.com', 'ACTIVE', 'STUDENT')");
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_shouldReadFromReplica() throws Exception {
+        primary.update("INSERT INTO courses (id, title, description, capacity) VALUES (1, 'Primary title', 'Intro', 10)");
+        replica.update("INSERT INTO courses (id, title, description, capacity) VALUES (1, 'Replica title', 'Intro', 20)");
+
+        mockMvc.perform(get("/api/courses/1/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(20));
+    }
+
+    @Test
+    void responsesWithETag_shouldBeReadFromPrimary() throws Exception {
+        // id вне блока последовательности: курс с ним не попадал в кэш в других тестах
+        primary.update("INSERT INTO courses (id, title, description) VALUES (100001, 'Primary title', 'Intro')");
+        replica.update("INSERT INTO courses (id, title, description) VALUES (100001, 'Replica title', 'Intro')");
+
+        mockMvc.perform(get("/api/courses/100001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Primary title"));
+        mockMvc.perform(get("/api/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Primary title"));
+    }
+
+    @Test
+    void ownEnrollment_shouldBeReadFromPrimaryWithinWindow() throws Exception {
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.update("INSERT INTO courses (id, title, description) VALUES (1, 'Java Basics', 'Intro')");
+        }
+
+        // Запись идёт в основную БД, реплика её «ещё не получила»
+        mockMvc.perform(post("/api/enrollments")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"studentId\":1,\"courseId\":1}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/courses/1/students"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+        mockMvc.perform(get("/api/users/1/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // После окна чтения без ETag снова идут в реплику
+        Thread.sleep(600);
+        mockMvc.perform(get("/api/users/1/courses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void changedCourseAndUser_shouldFillCacheFromPrimary() throws Exception {
+        // id выдаёт последовательность и может совпасть со студентом из setUp
+        primary.execute("DELETE FROM users");
+        Course course = new Course();
+        course.setTitle("Fresh course");
+        long courseId = courseService.save(course).getId();
+        User user = new User();
+        user.setFirstName("Bob");
+        user.setLastName("Ray");
+        user.setEmail("bob@example.com");
+        user.setRole(UserRole.STUDENT);
+        user.setStatus(UserStatus.ACTIVE);
+        long userId = userService.create(user).getId();
+
+        // В реплике строк нет: из неё чтение вернуло бы 404
+        mockMvc.perform(get("/api/courses/" + courseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Fresh course"));
+        mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Bob"));
+
+        // После окна ответы берутся из кэша, заполненного из основной БД
+        Thread.sleep(600);
+        mockMvc.perform(get("/api/users/" + userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Bob"));
+    }
+}
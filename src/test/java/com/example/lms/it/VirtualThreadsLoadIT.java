@@ -0,0 +1,28 @@
+package com.example.lms.it;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Нагрузка на API в режиме виртуальных потоков с ограничением {@code DbConcurrencyLimitFilter}.
+ * Spring Boot включает виртуальные потоки только на JRE 21+, поэтому на более старой JRE тест пропускается;
+ * на JDK 21 сборка компилируется под Java 21 (профиль {@code jdk21}) и тест запускается вместе с остальными.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true"
+)
+class VirtualThreadsLoadIT extends AbstractThreadModeLoadIT {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+
+    @Override
+    boolean concurrencyLimited() {
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.lms.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Модульные тесты ограничения частоты по студенту в {@link EnrollmentAdmission} с заданным временем.
+ */
+class EnrollmentAdmissionTest {
+
+    private static final int CAPACITY = 16;
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void throttledStudent_shouldStayThrottledWhenEarlierSlotInProbeChainExpires() {
+        // 10 запросов в секунду без запаса: следующий токен через 100 мс
+        EnrollmentAdmission admission = new EnrollmentAdmission(true, 10, 1, CAPACITY, 10, new SimpleMeterRegistry());
+        long idle = 1;
+        long throttled = collidingStudent(idle);
+
+        assertThat(admission.tryConsume(idle, 0)).isZero();
+        // Начальная ячейка занята, ведро студента — в следующей ячейке
+        assertThat(admission.tryConsume(throttled, 50 * MS)).isZero();
+        // Первый студент затих (его ведро снова полное), а второй ещё не накопил токен
+        assertThat(admission.tryConsume(throttled, 120 * MS)).isEqualTo(30 * MS);
+        assertThat(admission.tryConsume(throttled, 150 * MS)).isZero();
+    }
+
+    @Test
+    void studentWithoutBucket_shouldTakeExpiredSlot() {
+        EnrollmentAdmission admission = new EnrollmentAdmission(true, 10, 1, CAPACITY, 10, new SimpleMeterRegistry());
+        long idle = 1;
+        long next = collidingStudent(idle);
+
+        assertThat(admission.tryConsume(idle, 0)).isZero();
+        assertThat(admission.tryConsume(next, 100 * MS)).isZero();
+        assertThat(admission.tryConsume(next, 150 * MS)).isEqualTo(50 * MS);
+    }
+
+    private static long collidingStudent(long studentId) {
+        int mask = CAPACITY - 1;
+        for (long candidate = studentId + 1; ; candidate++) {
+            if ((EnrollmentAdmission.home(candidate) & mask) == (EnrollmentAdmission.home(studentId) & mask)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.lms.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Модульные тесты отметок «курс заполнен»: снятие отметки ждёт коммита транзакции.
+ */
+class SeatAvailabilityTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markAvailable_shouldClearMarkOnlyAfterCommit() {
+        SeatAvailability seats = new SeatAvailability(Duration.ofMinutes(1));
+        seats.markFull(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        seats.markAvailable(1);
+        assertThat(seats.isKnownFull(1)).isTrue();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(seats.isKnownFull(1)).isFalse();
+    }
+
+    @Test
+    void markAvailable_shouldKeepMarkWhenTransactionRollsBack() {
+        SeatAvailability seats = new SeatAvailability(Duration.ofMinutes(1));
+        seats.markFull(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        seats.markAvailable(1);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(seats.isKnownFull(1)).isTrue();
+    }
+}